@@ -0,0 +1,126 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.RoomDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
+
+import static org.junit.Assert.*;
+
+/**
+ * Latência de leitura e escrita com cada perfil de banco, sobre 50 mil notas, só no log.
+ * Popular os bancos leva alguns segundos por perfil, então fica fora da suíte normal:
+ * os PRAGMAs de cada perfil são conferidos no DatabaseProfileTest.
+ */
+@Ignore("medição de tempo; rodar manualmente")
+@RunWith(AndroidJUnit4.class)
+public class DatabaseProfileBenchmark {
+
+    private static final String TAG = "DatabaseProfileBenchmark";
+    private static final String DATABASE_NAME = "profile_benchmark";
+    private static final int NOTE_COUNT = 50_000;
+    private static final int INSERT_BATCH = 5_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int PAGES_READ = 100;
+    private static final int LOOKUPS = 500;
+    private static final int SINGLE_WRITES = 200;
+
+    private static final DatabaseProfile ROLLBACK_JOURNAL = new DatabaseProfile.Builder()
+            .setJournalMode(RoomDatabase.JournalMode.TRUNCATE)
+            .build();
+    private static final DatabaseProfile WAL_ONLY = new DatabaseProfile.Builder()
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .build();
+
+    private Context context;
+    private NoteDatabase database;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void compareProfiles() {
+        measure("rollback journal", ROLLBACK_JOURNAL);
+        measure("WAL", WAL_ONLY);
+        measure("WAL ajustado", DatabaseProfile.TUNED);
+    }
+
+    private void measure(String label, DatabaseProfile profile) {
+        context.deleteDatabase(DATABASE_NAME);
+        database = NoteDatabase.create(context, DATABASE_NAME, profile);
+        NoteDao noteDao = database.noteDao();
+        populate(noteDao);
+
+        // Leituras fora de transação, pelas conexões de leitura do pool, como no app
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < PAGES_READ; i++) {
+            List<NoteSummary> page = noteDao.getFirstPage(PAGE_SIZE);
+            NoteSummary last = page.get(page.size() - 1);
+            noteDao.getPageBefore(last.getCreationDate().getTime(), last.getId(), PAGE_SIZE);
+        }
+        double pageMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / (PAGES_READ * 2);
+
+        Random random = new Random(7);
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertNotNull(noteDao.getNoteById(1 + random.nextInt(NOTE_COUNT)));
+        }
+        double lookupMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / LOOKUPS;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < SINGLE_WRITES; i++) {
+            noteDao.insert(new Note(0, "escrita " + i, "texto da escrita [[nota " + i + "]]", "Medição"));
+        }
+        double writeMs = (SystemClock.elapsedRealtimeNanos() - start) / 1e6 / SINGLE_WRITES;
+
+        Log.i(TAG, String.format("%-16s página %.2f ms, nota por id %.3f ms, escrita %.2f ms",
+                label, pageMs, lookupMs, writeMs));
+
+        database.close();
+        database = null;
+    }
+
+    private static void populate(NoteDao noteDao) {
+        long baseTime = System.currentTimeMillis();
+        for (int start = 0; start < NOTE_COUNT; start += INSERT_BATCH) {
+            List<Note> batch = new ArrayList<>(INSERT_BATCH);
+            for (int i = start; i < start + INSERT_BATCH; i++) {
+                Note note = new Note(0, "nota " + i,
+                        "Conteúdo da nota " + i + " com texto suficiente para ocupar algumas linhas " +
+                                "da página. Cita [[nota " + (i + 1) % NOTE_COUNT + "]].",
+                        "Categoria " + i % 20);
+                note.setCreationDate(new Date(baseTime - i * 1000L));
+                batch.add(note);
+            }
+            noteDao.insertAll(batch);
+        }
+    }
+}
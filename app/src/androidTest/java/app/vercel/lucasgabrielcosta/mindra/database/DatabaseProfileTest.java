@@ -0,0 +1,93 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Build;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Confere, lendo cada PRAGMA de volta, que o perfil ajustado chega às conexões do banco.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseProfileTest {
+
+    private static final String DATABASE_NAME = "profile_test";
+
+    private Context context;
+    private NoteDatabase database;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void tunedProfile_appliesPragmas() {
+        database = NoteDatabase.create(context, DATABASE_NAME, DatabaseProfile.TUNED);
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+
+        // Dentro da transação a consulta usa a conexão principal, onde o perfil foi aplicado
+        db.beginTransaction();
+        try {
+            assertEquals("wal", queryString(db, "PRAGMA journal_mode"));
+            assertEquals("1", queryString(db, "PRAGMA synchronous"));
+            assertEquals("2", queryString(db, "PRAGMA temp_store"));
+            assertEquals("-8192", queryString(db, "PRAGMA cache_size"));
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Test
+    public void tunedProfile_reachesReaderConnections() throws Exception {
+        // Antes da API 30 os PRAGMAs só chegam à conexão principal
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R);
+        database = NoteDatabase.create(context, DATABASE_NAME, DatabaseProfile.TUNED);
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+
+        // Com a conexão principal presa em uma transação, outra thread só pode ler por uma
+        // conexão de leitura, como as consultas da lista e da busca
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        db.beginTransactionNonExclusive();
+        try {
+            String mmapSize = reader.submit(() -> queryString(db, "PRAGMA mmap_size")).get();
+            String cacheSize = reader.submit(() -> queryString(db, "PRAGMA cache_size")).get();
+
+            assertEquals(String.valueOf(DatabaseProfile.TUNED.getMmapSize()), mmapSize);
+            assertEquals("-8192", cacheSize);
+        } finally {
+            db.endTransaction();
+            reader.shutdown();
+        }
+    }
+
+    private static String queryString(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getString(0);
+        }
+    }
+}
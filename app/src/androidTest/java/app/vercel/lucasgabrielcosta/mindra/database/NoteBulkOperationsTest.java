@@ -0,0 +1,123 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.vercel.lucasgabrielcosta.mindra.model.Note;
+
+import static org.junit.Assert.*;
+
+/**
+ * Operações em lote do NoteDao: mesmo resultado das operações por nota, em uma transação.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteBulkOperationsTest {
+
+    private static final String DATABASE_NAME = "bulk_operations_test";
+    // Acima de MAX_BIND_ARGS: a exclusão passa por vários blocos
+    private static final int BATCH_SIZE = 10_000;
+
+    private Context context;
+    private NoteDatabase database;
+    private NoteDao noteDao;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+        database = Room.databaseBuilder(context, NoteDatabase.class, DATABASE_NAME).build();
+        noteDao = database.noteDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void insertAll_resolvesLinksLikeSingleInserts() {
+        noteDao.insert(new Note(0, "Antiga", "cita [[Nova]] e [[Inexistente]]", "Geral"));
+
+        List<Long> ids = noteDao.insertAll(
+                new Note(0, "Nova", "cita [[Antiga]] e [[Irmã]]", "Geral"),
+                new Note(0, "Irmã", "cita [[Nova]]", "Geral"));
+
+        int newId = ids.get(0).intValue();
+        int sisterId = ids.get(1).intValue();
+        assertEquals(newId, queryInt("SELECT target_id FROM note_links WHERE target_title = 'Nova' LIMIT 1"));
+        assertEquals(sisterId, queryInt("SELECT target_id FROM note_links WHERE target_title = 'Irmã'"));
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM note_links WHERE target_id = " + newId));
+        assertEquals(1, queryInt("SELECT COUNT(*) FROM note_links WHERE target_id IS NULL"));
+    }
+
+    @Test
+    public void deleteAllById_removesNotesAndReattachesOrphans() {
+        List<Long> ids = noteDao.insertAll(
+                new Note(0, "Alvo", "primeira", "Geral"),
+                new Note(0, "Alvo", "duplicada", "Geral"),
+                new Note(0, "Fonte", "cita [[Alvo]]", "Geral"),
+                new Note(0, "Outra", "sem links", "Geral"));
+
+        List<Integer> toDelete = new ArrayList<>();
+        toDelete.add(ids.get(0).intValue());
+        toDelete.add(ids.get(3).intValue());
+        noteDao.deleteAllById(toDelete);
+
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM notes"));
+        // A conexão de "Fonte" passa para a outra nota chamada "Alvo"
+        assertEquals(ids.get(1).intValue(), queryInt("SELECT target_id FROM note_links WHERE target_title = 'Alvo'"));
+    }
+
+    @Test
+    public void bulkBatch_insertsAndDeletesTenThousandLinkedNotes() {
+        List<Note> batch = createNotes(BATCH_SIZE, "bulk");
+        List<Long> ids = noteDao.insertAll(batch);
+
+        assertEquals(BATCH_SIZE, ids.size());
+        assertEquals(BATCH_SIZE, queryInt("SELECT COUNT(*) FROM notes"));
+        assertEquals(2 * BATCH_SIZE, queryInt("SELECT COUNT(*) FROM note_links"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM note_links WHERE target_id IS NULL"));
+        // Cada nota recebe as duas conexões das vizinhas
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM note_links WHERE target_id = " + ids.get(0)));
+
+        List<Integer> noteIds = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            noteIds.add(id.intValue());
+        }
+        noteDao.deleteAllById(noteIds);
+
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM notes"));
+        assertEquals(0, queryInt("SELECT COUNT(*) FROM note_links"));
+    }
+
+    // Cada nota cita a anterior e a seguinte, como em um cofre de notas encadeadas
+    private static List<Note> createNotes(int count, String prefix) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String content = "Nota " + i + " ligada a [[" + prefix + (i + count - 1) % count + "]] " +
+                    "e a [[" + prefix + (i + 1) % count + "]]";
+            notes.add(new Note(0, prefix + i, content, "Categoria " + i % 10));
+        }
+        return notes;
+    }
+
+    private int queryInt(String sql) {
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase().query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
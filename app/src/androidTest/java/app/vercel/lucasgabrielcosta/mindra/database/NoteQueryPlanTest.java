@@ -0,0 +1,99 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Confere pelo EXPLAIN QUERY PLAN que as listagens de notas andam pelos índices de
+ * creationDate, sem varrer a tabela nem ordenar em uma B-tree temporária.
+ * As consultas são as constantes do próprio NoteDao; os parâmetros nomeados são
+ * preenchidos na ordem em que aparecem.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NoteQueryPlanTest {
+
+    private NoteDatabase database;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, NoteDatabase.class).build();
+        db = database.getOpenHelper().getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void getAllNotes_walksCreationDateIndex() {
+        assertUsesIndex(plan(NoteDao.ALL_NOTES_QUERY));
+    }
+
+    @Test
+    public void getNotesByCategory_searchesCategoryIndex() {
+        List<String> plan = plan(NoteDao.NOTES_BY_CATEGORY_QUERY, "Ideias");
+
+        assertUsesIndex(plan);
+        assertTrue(plan.toString(), plan.get(0).contains("index_notes_category_creationDate"));
+    }
+
+    @Test
+    public void getAllNodes_walksCreationDateIndex() {
+        assertUsesIndex(plan(NoteDao.ALL_NODES_QUERY));
+    }
+
+    @Test
+    public void getFirstPage_walksCreationDateIndex() {
+        assertUsesIndex(plan(NoteDao.FIRST_PAGE_QUERY, 50));
+    }
+
+    @Test
+    public void getPageBefore_searchesCreationDateIndex() {
+        // :beforeDate aparece duas vezes, mas é um parâmetro só
+        List<String> plan = plan(NoteDao.PAGE_BEFORE_QUERY, 1_000L, 10, 50);
+
+        assertUsesIndex(plan);
+        assertTrue(plan.toString(), plan.get(0).startsWith("SEARCH"));
+    }
+
+    private List<String> plan(String sql, Object... args) {
+        List<String> details = new ArrayList<>();
+        try (Cursor cursor = db.query(new SimpleSQLiteQuery("EXPLAIN QUERY PLAN " + sql, args))) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                details.add(cursor.getString(detail));
+            }
+        }
+        return details;
+    }
+
+    // Versões antigas do SQLite escrevem "SCAN TABLE notes"; as novas, "SCAN notes"
+    private static void assertUsesIndex(List<String> plan) {
+        assertFalse(plan.isEmpty());
+        for (String detail : plan) {
+            assertFalse(plan.toString(), detail.contains("TEMP B-TREE"));
+            if (detail.matches("SCAN (TABLE )?notes\\b.*")) {
+                assertTrue(plan.toString(), detail.contains("INDEX index_notes_creationDate"));
+            }
+        }
+    }
+}
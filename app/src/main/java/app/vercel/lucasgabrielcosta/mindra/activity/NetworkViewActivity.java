@@ -2,24 +2,38 @@ package app.vercel.lucasgabrielcosta.mindra.activity;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.view.View;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
-
-import java.util.List;
+import androidx.lifecycle.Lifecycle;
 
 import app.vercel.lucasgabrielcosta.mindra.R;
-import app.vercel.lucasgabrielcosta.mindra.database.NoteDatabase;
-import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteNode;
+import app.vercel.lucasgabrielcosta.mindra.repository.NoteRepository;
 import app.vercel.lucasgabrielcosta.mindra.view.NetworkView;
 
 public class NetworkViewActivity extends AppCompatActivity implements NetworkView.OnNodeSelectedListener {
 
+    // Fração da memória do app reservada aos blocos do grafo
+    private static final int TILE_CACHE_MEMORY_FRACTION = 8;
+    // Uma importação grava um lote atrás do outro: o grafo relê no máximo uma vez nesse intervalo
+    private static final long RELOAD_THROTTLE_MS = 500;
+
     private Toolbar toolbar;
     private NetworkView networkView;
-    private List<Note> allNotes;
+    private NoteRepository repository;
+    private NoteRepository.Subscription notesSubscription;
+    // Só depois da primeira carga (notas e posições salvas) as mudanças viram updateNotes
+    private boolean graphLoaded = false;
+    private boolean changedDuringFirstLoad = false;
+    // Houve mudança no banco enquanto a tela não estava visível
+    private boolean graphStale = false;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Runnable pendingReload;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -28,20 +42,18 @@ public class NetworkViewActivity extends AppCompatActivity implements NetworkVie
 
         initializeViews();
         setupToolbar();
-        loadAllNotes();
-
-        if (allNotes.isEmpty()) {
-            showEmptyNotesMessage();
-            return;
-        }
-
-        networkView.setNotes(allNotes);
         networkView.setOnNodeSelectedListener(this);
+        networkView.setOnLayoutSettledListener(repository::savePositions);
+        networkView.enableTileCache((int) (Runtime.getRuntime().maxMemory() / TILE_CACHE_MEMORY_FRACTION));
+
+        notesSubscription = repository.observeNotes(this::onNotesChanged);
+        loadAllNotes();
     }
 
     private void initializeViews() {
         toolbar = findViewById(R.id.toolbar);
         networkView = findViewById(R.id.networkView);
+        repository = NoteRepository.getInstance(this);
     }
 
     private void setupToolbar() {
@@ -53,21 +65,79 @@ public class NetworkViewActivity extends AppCompatActivity implements NetworkVie
         }
     }
 
+    private void onNotesChanged() {
+        if (!graphLoaded) {
+            // Um updateNotes agora partiria do grafo vazio e perderia as posições salvas
+            changedDuringFirstLoad = true;
+            return;
+        }
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED)) {
+            if (pendingReload != null) return;
+            pendingReload = () -> {
+                pendingReload = null;
+                loadAllNotes();
+            };
+            mainHandler.postDelayed(pendingReload, RELOAD_THROTTLE_MS);
+        } else {
+            graphStale = true;
+        }
+    }
+
     private void loadAllNotes() {
-        NoteDatabase db = NoteDatabase.getDatabase(this);
-        allNotes = db.noteDao().getAllNotes();
+        graphStale = false;
+        final boolean firstLoad = !graphLoaded;
+
+        repository.getGraphNodes(notes -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            if (notes.isEmpty()) {
+                networkView.setNotes(notes);
+                showEmptyNotesMessage();
+                if (firstLoad) onFirstLoadFinished();
+                return;
+            }
+            showInstructions();
+
+            if (firstLoad) {
+                // Parte das posições salvas: só notas novas ou alteradas passam pelo layout
+                repository.getGraphPositions(positions -> {
+                    if (isFinishing() || isDestroyed()) return;
+                    networkView.setNotes(notes, positions);
+                    onFirstLoadFinished();
+                });
+            } else {
+                // Mantém as posições; só o que mudou volta a se acomodar
+                networkView.updateNotes(notes);
+            }
+        });
+    }
+
+    private void onFirstLoadFinished() {
+        graphLoaded = true;
+        if (changedDuringFirstLoad) {
+            changedDuringFirstLoad = false;
+            onNotesChanged();
+        }
     }
 
+    // O rodapé de dicas vira o aviso de grafo vazio, e volta a ser dica quando chegam notas
     private void showEmptyNotesMessage() {
         Toast.makeText(this, R.string.no_notes, Toast.LENGTH_SHORT).show();
-        View emptyView = findViewById(R.id.tvInstructions);
-        if (emptyView != null) {
-            emptyView.setVisibility(View.VISIBLE);
+        TextView footer = findViewById(R.id.tvInstructions);
+        if (footer != null) {
+            footer.setText(R.string.no_notes);
+        }
+    }
+
+    private void showInstructions() {
+        TextView footer = findViewById(R.id.tvInstructions);
+        if (footer != null) {
+            footer.setText(R.string.network_instructions);
         }
     }
 
     @Override
-    public void onNodeSelected(Note note) {
+    public void onNodeSelected(NoteNode note) {
         Toast.makeText(this, getString(R.string.note_clicked, note.getTitle()), Toast.LENGTH_SHORT).show();
 
         Intent intent = new Intent(this, NoteFormActivity.class);
@@ -76,22 +146,18 @@ public class NetworkViewActivity extends AppCompatActivity implements NetworkVie
     }
 
     @Override
-    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
-        super.onActivityResult(requestCode, resultCode, data);
-        if (requestCode == 1 && resultCode == RESULT_OK) {
+    protected void onResume() {
+        super.onResume();
+        // Sem mudanças desde a última carga, voltar para a tela não consulta o banco
+        if (graphStale) {
             loadAllNotes();
-            if (!allNotes.isEmpty()) {
-                networkView.setNotes(allNotes);
-            }
         }
     }
 
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadAllNotes();
-        if (!allNotes.isEmpty()) {
-            networkView.setNotes(allNotes);
-        }
+    protected void onDestroy() {
+        mainHandler.removeCallbacksAndMessages(null);
+        notesSubscription.cancel();
+        super.onDestroy();
     }
 }
\ No newline at end of file
@@ -2,12 +2,11 @@ package app.vercel.lucasgabrielcosta.mindra.activity;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.text.Editable;
-import android.text.Spannable;
-import android.text.TextWatcher;
-import android.text.style.ForegroundColorSpan;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -17,12 +16,11 @@ import androidx.core.content.ContextCompat;
 
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 import app.vercel.lucasgabrielcosta.mindra.R;
-import app.vercel.lucasgabrielcosta.mindra.database.NoteDatabase;
 import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
+import app.vercel.lucasgabrielcosta.mindra.repository.NoteRepository;
+import app.vercel.lucasgabrielcosta.mindra.util.WikiLinkHighlighter;
 
 public class NoteFormActivity extends AppCompatActivity {
 
@@ -30,8 +28,13 @@ public class NoteFormActivity extends AppCompatActivity {
     private TextInputEditText etNoteTitle;
     private TextInputEditText etNoteCategory;
     private TextInputEditText etNoteContent;
-    private NoteDatabase database;
+    private LinearLayout layoutBacklinks;
+    private TextView tvBacklinksTitle;
+    private LinearLayout containerBacklinks;
+    private NoteRepository repository;
     private int noteId = -1;
+    // Evita gravar a mesma nota duas vezes enquanto a primeira gravação não termina
+    private boolean saving;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,7 +52,10 @@ public class NoteFormActivity extends AppCompatActivity {
         etNoteTitle = findViewById(R.id.etNoteTitle);
         etNoteCategory = findViewById(R.id.etNoteCategory);
         etNoteContent = findViewById(R.id.etNoteContent);
-        database = NoteDatabase.getDatabase(this);
+        layoutBacklinks = findViewById(R.id.layoutBacklinks);
+        tvBacklinksTitle = findViewById(R.id.tvBacklinksTitle);
+        containerBacklinks = findViewById(R.id.containerBacklinks);
+        repository = NoteRepository.getInstance(this);
     }
 
     private void checkForEditMode() {
@@ -61,15 +67,47 @@ public class NoteFormActivity extends AppCompatActivity {
 
     private void loadNoteData() {
         if (noteId > 0) {
-            Note note = database.noteDao().getNoteById(noteId);
-            if (note != null) {
-                etNoteTitle.setText(note.getTitle());
-                etNoteCategory.setText(note.getCategory());
-                etNoteContent.setText(note.getContent());
-            }
+            repository.getNoteById(noteId, note -> {
+                if (note != null && !isFinishing()) {
+                    etNoteTitle.setText(note.getTitle());
+                    etNoteCategory.setText(note.getCategory());
+                    etNoteContent.setText(note.getContent());
+                }
+            });
+            loadBacklinks();
         }
     }
 
+    private void loadBacklinks() {
+        repository.getBacklinks(noteId, backlinks -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            containerBacklinks.removeAllViews();
+            if (backlinks.isEmpty()) {
+                layoutBacklinks.setVisibility(View.GONE);
+                return;
+            }
+
+            tvBacklinksTitle.setText(getString(R.string.backlinks_count, backlinks.size()));
+            for (NoteSummary backlink : backlinks) {
+                containerBacklinks.addView(createBacklinkView(backlink));
+            }
+            layoutBacklinks.setVisibility(View.VISIBLE);
+        });
+    }
+
+    private TextView createBacklinkView(NoteSummary backlink) {
+        TextView view = (TextView) getLayoutInflater()
+                .inflate(R.layout.backlink_item, containerBacklinks, false);
+        view.setText(backlink.getTitle());
+        view.setOnClickListener(v -> {
+            Intent intent = new Intent(NoteFormActivity.this, NoteFormActivity.class);
+            intent.putExtra("note_id", backlink.getId());
+            startActivity(intent);
+        });
+        return view;
+    }
+
     private void setupToolbar() {
         setSupportActionBar(toolbar);
         if (getSupportActionBar() != null) {
@@ -80,44 +118,8 @@ public class NoteFormActivity extends AppCompatActivity {
     }
 
     private void setupTextHighlighting() {
-        etNoteContent.addTextChangedListener(new TextWatcher() {
-            private boolean isHighlighting = false;
-
-            @Override
-            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-            }
-
-            @Override
-            public void onTextChanged(CharSequence s, int start, int before, int count) {
-            }
-
-            @Override
-            public void afterTextChanged(Editable s) {
-                if (isHighlighting) return;
-
-                isHighlighting = true;
-
-                ForegroundColorSpan[] spans = s.getSpans(0, s.length(), ForegroundColorSpan.class);
-                for (ForegroundColorSpan span : spans) {
-                    s.removeSpan(span);
-                }
-
-                int connectionColor = ContextCompat.getColor(NoteFormActivity.this, R.color.primary_dark);
-                Pattern pattern = Pattern.compile("\\[\\[(.*?)\\]\\]");
-                Matcher matcher = pattern.matcher(s.toString());
-
-                while (matcher.find()) {
-                    s.setSpan(
-                            new ForegroundColorSpan(connectionColor),
-                            matcher.start(),
-                            matcher.end(),
-                            Spannable.SPAN_EXCLUSIVE_EXCLUSIVE
-                    );
-                }
-
-                isHighlighting = false;
-            }
-        });
+        int connectionColor = ContextCompat.getColor(this, R.color.primary_dark);
+        etNoteContent.addTextChangedListener(new WikiLinkHighlighter(etNoteContent, connectionColor));
     }
 
     @Override
@@ -126,12 +128,21 @@ public class NoteFormActivity extends AppCompatActivity {
         return true;
     }
 
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        MenuItem save = menu.findItem(R.id.action_save);
+        if (save != null) {
+            save.setEnabled(!saving);
+        }
+        return super.onPrepareOptionsMenu(menu);
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         int id = item.getItemId();
 
         if (id == R.id.action_save) {
-            if (validateForm()) {
+            if (!saving && validateForm()) {
                 saveNote();
             }
             return true;
@@ -174,26 +185,48 @@ public class NoteFormActivity extends AppCompatActivity {
         String title = etNoteTitle.getText().toString().trim();
         String category = etNoteCategory.getText().toString().trim();
         String content = etNoteContent.getText().toString().trim();
+        setSaving(true);
 
         if (noteId > 0) {
-            Note note = database.noteDao().getNoteById(noteId);
-            if (note != null) {
+            repository.getNoteById(noteId, note -> {
+                if (note == null) {
+                    onSaveFailed(null);
+                    return;
+                }
+
                 note.setTitle(title);
                 note.setCategory(category);
                 note.setContent(content);
-                database.noteDao().update(note);
-                showToast(getString(R.string.toast_note_updated));
-            }
+                repository.update(note, result -> {
+                    showToast(getString(R.string.toast_note_updated));
+                    finishWithResult();
+                }, this::onSaveFailed);
+            }, this::onSaveFailed);
         } else {
             Note newNote = new Note();
             newNote.setTitle(title);
             newNote.setCategory(category);
             newNote.setContent(content);
 
-            database.noteDao().insert(newNote);
-            showToast(getString(R.string.toast_note_saved));
+            repository.insert(newNote, id -> {
+                showToast(getString(R.string.toast_note_saved));
+                finishWithResult();
+            }, this::onSaveFailed);
         }
+    }
+
+    private void onSaveFailed(Exception error) {
+        if (isFinishing() || isDestroyed()) return;
+        setSaving(false);
+        showToast(getString(R.string.error_save_note));
+    }
+
+    private void setSaving(boolean saving) {
+        this.saving = saving;
+        invalidateOptionsMenu();
+    }
 
+    private void finishWithResult() {
         Intent resultIntent = new Intent();
         setResult(RESULT_OK, resultIntent);
         finish();
@@ -1,43 +1,72 @@
 package app.vercel.lucasgabrielcosta.mindra.activity;
 
 import android.app.AlertDialog;
-import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.ActionMode;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
-import android.widget.AbsListView;
-import android.widget.AdapterView;
-import android.widget.ListView;
 import android.widget.Toast;
 
 import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
+import androidx.lifecycle.Lifecycle;
+import androidx.recyclerview.widget.ItemTouchHelper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import app.vercel.lucasgabrielcosta.mindra.R;
 import app.vercel.lucasgabrielcosta.mindra.adapter.NoteAdapter;
-import app.vercel.lucasgabrielcosta.mindra.database.NoteDatabase;
-import app.vercel.lucasgabrielcosta.mindra.model.Note;
-import app.vercel.lucasgabrielcosta.mindra.util.SwipeActionsTouchListener;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
+import app.vercel.lucasgabrielcosta.mindra.repository.NoteRepository;
 
 public class NoteListActivity extends AppCompatActivity {
 
+    private static final int PAGE_SIZE = 50;
+    private static final int PREFETCH_DISTANCE = 15;
+    private static final long SEARCH_DEBOUNCE_MS = 200;
+    // Uma importação grava um lote atrás do outro: a lista relê no máximo uma vez nesse intervalo
+    private static final long REFRESH_THROTTLE_MS = 500;
+    private static final int REQUEST_IMPORT_VAULT = 2;
+
     private Toolbar toolbar;
-    private ListView listViewNotes;
-    private ArrayList<Note> noteList;
+    private RecyclerView recyclerViewNotes;
+    private LinearLayoutManager layoutManager;
+    // Fonte da lista; cada mudança vai para o adapter como uma cópia, e o DiffUtil calcula o resto
+    private final ArrayList<NoteSummary> noteList = new ArrayList<>();
     private NoteAdapter noteAdapter;
-    private NoteDatabase database;
+    private NoteRepository repository;
+    // Seleção múltipla: enquanto o modo de ação está aberto, toques marcam notas
     private ActionMode actionMode;
-    private int selectedPosition = -1;
+    private boolean isLoadingPage = false;
+    private boolean hasMorePages = true;
+    private int pageGeneration = 0;
+    private boolean isSearching = false;
+    private String currentSearchText;
+    private NoteRepository.Subscription notesSubscription;
+    // Houve mudança no banco enquanto a tela não estava visível
+    private boolean listStale = false;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Runnable pendingSearch;
+    private Runnable pendingRefresh;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -48,8 +77,9 @@ public class NoteListActivity extends AppCompatActivity {
         setupToolbar();
         setupAdapter();
         loadNotesFromDatabase();
-        setupListClickListener();
         setupSwipeActions();
+        setupPrefetch();
+        notesSubscription = repository.observeNotes(this::onNotesChanged);
 
         getOnBackPressedDispatcher().addCallback(this, new OnBackPressedCallback(true) {
             @Override
@@ -63,8 +93,8 @@ public class NoteListActivity extends AppCompatActivity {
 
     private void initializeViews() {
         toolbar = findViewById(R.id.toolbar);
-        listViewNotes = findViewById(R.id.listViewNotes);
-        database = NoteDatabase.getDatabase(this);
+        recyclerViewNotes = findViewById(R.id.recyclerViewNotes);
+        repository = NoteRepository.getInstance(this);
     }
 
     private void setupToolbar() {
@@ -75,115 +105,300 @@ public class NoteListActivity extends AppCompatActivity {
     }
 
     private void setupAdapter() {
-        noteList = new ArrayList<>();
-        noteAdapter = new NoteAdapter(this, noteList);
-        listViewNotes.setAdapter(noteAdapter);
-    }
-
-    private void loadNotesFromDatabase() {
-        List<Note> notes = database.noteDao().getAllNotes();
-        noteList.clear();
-        noteList.addAll(notes);
-        noteAdapter.notifyDataSetChanged();
-    }
-
-    private void setupListClickListener() {
-        listViewNotes.setOnItemClickListener(new AdapterView.OnItemClickListener() {
+        noteAdapter = new NoteAdapter(this, new NoteAdapter.OnNoteClickListener() {
             @Override
-            public void onItemClick(AdapterView<?> parent, View view, int position, long id) {
-                if (position < noteList.size()) {
-                    Note selectedNote = noteList.get(position);
-                    openNoteForEditing(selectedNote);
+            public void onNoteClick(NoteSummary note) {
+                if (actionMode != null) {
+                    toggleSelection(note);
+                } else {
+                    openNoteForEditing(note.getId());
                 }
             }
-        });
 
-        listViewNotes.setOnItemLongClickListener(new AdapterView.OnItemLongClickListener() {
             @Override
-            public boolean onItemLongClick(AdapterView<?> parent, View view, int position, long id) {
-                if (actionMode != null) {
-                    return false;
+            public boolean onNoteLongClick(NoteSummary note, View view) {
+                if (actionMode == null) {
+                    actionMode = startActionMode(actionModeCallback);
                 }
-
-                selectedPosition = position;
-                actionMode = startActionMode(actionModeCallback);
-                view.setSelected(true);
+                toggleSelection(note);
                 return true;
             }
         });
+
+        layoutManager = new LinearLayoutManager(this);
+        recyclerViewNotes.setLayoutManager(layoutManager);
+        recyclerViewNotes.setAdapter(noteAdapter);
     }
 
-    private void setupSwipeActions() {
-        SwipeActionsTouchListener touchListener = new SwipeActionsTouchListener(
-                listViewNotes,
-                new SwipeActionsTouchListener.SwipeActionsCallback() {
-                    @Override
-                    public boolean canSwipe(int position) {
-                        return position < noteList.size();
-                    }
+    private void toggleSelection(NoteSummary note) {
+        int count = noteAdapter.toggleSelection(note.getId());
+        if (count == 0) {
+            actionMode.finish();
+            return;
+        }
 
-                    @Override
-                    public void onSwipeRight(int position) {
-                        // Swipe para a direita - Editar
-                        if (position < noteList.size()) {
-                            Note selectedNote = noteList.get(position);
-                            openNoteForEditing(selectedNote);
-                        }
-                    }
+        actionMode.setTitle(getResources().getQuantityString(R.plurals.notes_selected, count, count));
+        actionMode.invalidate();
+    }
 
-                    @Override
-                    public void onSwipeLeft(int position, Context context) {
-                        // Swipe para a esquerda - Excluir (com confirmação)
-                        if (position < noteList.size()) {
-                            Note noteToDelete = noteList.get(position);
-                            showDeleteConfirmationDialog(noteToDelete, position);
-                        }
-                    }
-                });
+    private void submitNotes() {
+        noteAdapter.submitList(new ArrayList<>(noteList));
+    }
+
+    private void loadNotesFromDatabase() {
+        // Reinicia a paginação; respostas de páginas antigas são descartadas
+        pageGeneration++;
+        isLoadingPage = false;
+        hasMorePages = true;
+        noteList.clear();
+        submitNotes();
+        loadNextPage();
+    }
+
+    /**
+     * Recarrega as notas já carregadas sem esvaziar a lista: o DiffUtil só mexe nas
+     * linhas que mudaram.
+     */
+    private void refreshLoadedNotes() {
+        final int generation = ++pageGeneration;
+        final int count = Math.max(PAGE_SIZE, noteList.size());
+        isLoadingPage = true;
+
+        repository.getNotesPage(null, count, notes -> {
+            if (isFinishing() || isDestroyed() || generation != pageGeneration) return;
+
+            isLoadingPage = false;
+            hasMorePages = notes.size() == count;
+            noteList.clear();
+            noteList.addAll(notes);
+            submitNotes();
+        });
+    }
+
+    // Qualquer escrita em notas ou conexões, feita por esta ou por outra tela
+    private void onNotesChanged() {
+        if (getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.RESUMED)) {
+            if (pendingRefresh != null) return;
+            pendingRefresh = () -> {
+                pendingRefresh = null;
+                refreshVisibleContent();
+            };
+            mainHandler.postDelayed(pendingRefresh, REFRESH_THROTTLE_MS);
+        } else {
+            listStale = true;
+        }
+    }
+
+    private void refreshVisibleContent() {
+        listStale = false;
+        if (isSearching) {
+            runSearch(currentSearchText);
+        } else {
+            refreshLoadedNotes();
+        }
+    }
+
+    private void loadNextPage() {
+        if (isLoadingPage || !hasMorePages || isSearching) return;
+
+        isLoadingPage = true;
+        final int generation = pageGeneration;
+        NoteSummary lastNote = noteList.isEmpty() ? null : noteList.get(noteList.size() - 1);
+
+        repository.getNotesPage(lastNote, PAGE_SIZE, notes -> {
+            if (isFinishing() || isDestroyed() || generation != pageGeneration) return;
+
+            isLoadingPage = false;
+            hasMorePages = notes.size() == PAGE_SIZE;
+            noteList.addAll(notes);
+            submitNotes();
+        });
+    }
+
+    private void setupSwipeActions() {
+        ItemTouchHelper.SimpleCallback swipeCallback = new ItemTouchHelper.SimpleCallback(0,
+                ItemTouchHelper.LEFT | ItemTouchHelper.RIGHT) {
+            @Override
+            public boolean onMove(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.ViewHolder viewHolder,
+                                  @NonNull RecyclerView.ViewHolder target) {
+                return false;
+            }
 
-        listViewNotes.setOnTouchListener(touchListener);
-        listViewNotes.setOnScrollListener(new AbsListView.OnScrollListener() {
             @Override
-            public void onScrollStateChanged(AbsListView view, int scrollState) {
-                // Desativa o swipe quando a lista está sendo rolada
-                touchListener.setPaused(scrollState == AbsListView.OnScrollListener.SCROLL_STATE_FLING);
+            public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
+                int position = viewHolder.getBindingAdapterPosition();
+                if (position == RecyclerView.NO_POSITION) return;
+
+                // A linha volta ao lugar; a exclusão só acontece depois da confirmação
+                noteAdapter.notifyItemChanged(position);
+                NoteSummary note = noteAdapter.getNoteAt(position);
+
+                if (direction == ItemTouchHelper.RIGHT) {
+                    // Swipe para a direita - Editar
+                    openNoteForEditing(note.getId());
+                } else {
+                    // Swipe para a esquerda - Excluir (com confirmação)
+                    showDeleteConfirmationDialog(note);
+                }
             }
+        };
 
+        new ItemTouchHelper(swipeCallback).attachToRecyclerView(recyclerViewNotes);
+    }
+
+    private void setupPrefetch() {
+        recyclerViewNotes.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                // Busca a próxima página antes de o usuário chegar ao fim da lista
+                int totalItemCount = layoutManager.getItemCount();
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (totalItemCount > 0 && lastVisible >= totalItemCount - 1 - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
             }
         });
     }
 
-    private void showDeleteConfirmationDialog(final Note noteToDelete, final int position) {
+    private void showDeleteConfirmationDialog(final NoteSummary noteToDelete) {
         new AlertDialog.Builder(this)
                 .setTitle("Confirmar exclusão")
                 .setMessage("Tem certeza que deseja excluir a nota \"" + noteToDelete.getTitle() + "\"?")
                 .setPositiveButton("Excluir", new DialogInterface.OnClickListener() {
                     @Override
                     public void onClick(DialogInterface dialog, int which) {
-                        database.noteDao().delete(noteToDelete);
-                        noteList.remove(position);
-                        noteAdapter.notifyDataSetChanged();
-                        Toast.makeText(NoteListActivity.this, "Nota excluída", Toast.LENGTH_SHORT).show();
+                        repository.deleteById(noteToDelete.getId(), result -> {
+                            if (isFinishing() || isDestroyed()) return;
+
+                            removeFromList(Collections.singleton(noteToDelete.getId()));
+                            Toast.makeText(NoteListActivity.this, "Nota excluída", Toast.LENGTH_SHORT).show();
+                        }, NoteListActivity.this::onDeleteFailed);
                     }
                 })
                 .setNegativeButton("Cancelar", null)
                 .show();
     }
 
-    private void openNoteForEditing(Note note) {
+    // Exclusão em lote: uma única transação para todas as notas selecionadas
+    private void showBulkDeleteConfirmationDialog(final List<Integer> noteIds) {
+        final int count = noteIds.size();
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.delete_notes_title)
+                .setMessage(getResources().getQuantityString(R.plurals.delete_notes_message, count, count))
+                .setPositiveButton(R.string.excluir, (dialog, which) -> {
+                    if (actionMode != null) {
+                        actionMode.finish();
+                    }
+                    repository.deleteAllById(noteIds, result -> {
+                        if (isFinishing() || isDestroyed()) return;
+
+                        removeFromList(noteIds);
+                        Toast.makeText(NoteListActivity.this,
+                                getResources().getQuantityString(R.plurals.notes_deleted, count, count),
+                                Toast.LENGTH_SHORT).show();
+                    }, this::onDeleteFailed);
+                })
+                .setNegativeButton(android.R.string.cancel, null)
+                .show();
+    }
+
+    // A lista só perde as notas depois da exclusão: em caso de falha, basta avisar
+    private void onDeleteFailed(Exception error) {
+        if (isFinishing() || isDestroyed()) return;
+        Toast.makeText(this, R.string.error_delete_notes, Toast.LENGTH_SHORT).show();
+    }
+
+    private void removeFromList(Collection<Integer> noteIds) {
+        Set<Integer> ids = new HashSet<>(noteIds);
+        if (noteList.removeIf(note -> ids.contains(note.getId()))) {
+            submitNotes();
+        }
+    }
+
+    private void openNoteForEditing(int noteId) {
         Intent intent = new Intent(NoteListActivity.this, NoteFormActivity.class);
-        intent.putExtra("note_id", note.getId());
+        intent.putExtra("note_id", noteId);
         startActivityForResult(intent, 1);
     }
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_list, menu);
+        setupSearch(menu.findItem(R.id.action_search));
         return true;
     }
 
+    private void setupSearch(MenuItem searchItem) {
+        SearchView searchView = (SearchView) searchItem.getActionView();
+        searchView.setQueryHint(getString(R.string.search_hint));
+
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                scheduleSearch(query, 0);
+                searchView.clearFocus();
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                scheduleSearch(newText, SEARCH_DEBOUNCE_MS);
+                return true;
+            }
+        });
+
+        searchItem.setOnActionExpandListener(new MenuItem.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(MenuItem item) {
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(MenuItem item) {
+                if (pendingSearch != null) {
+                    mainHandler.removeCallbacks(pendingSearch);
+                }
+                isSearching = false;
+                loadNotesFromDatabase();
+                return true;
+            }
+        });
+    }
+
+    private void scheduleSearch(String text, long delayMs) {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+        }
+
+        pendingSearch = () -> runSearch(text);
+        mainHandler.postDelayed(pendingSearch, delayMs);
+    }
+
+    private void runSearch(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            if (isSearching) {
+                isSearching = false;
+                loadNotesFromDatabase();
+            }
+            return;
+        }
+
+        // Mesma geração da paginação: invalida páginas e buscas anteriores ainda em andamento
+        isSearching = true;
+        currentSearchText = text;
+        final int generation = ++pageGeneration;
+        repository.search(text, results -> {
+            if (isFinishing() || isDestroyed() || generation != pageGeneration) return;
+
+            noteList.clear();
+            noteList.addAll(results);
+            submitNotes();
+            if (results.isEmpty()) {
+                Toast.makeText(NoteListActivity.this, R.string.search_no_results, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
         int id = item.getItemId();
@@ -192,6 +407,12 @@ public class NoteListActivity extends AppCompatActivity {
             Intent intent = new Intent(NoteListActivity.this, NoteFormActivity.class);
             startActivityForResult(intent, 1);
             return true;
+        } else if (id == R.id.action_import_vault) {
+            Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+            intent.addCategory(Intent.CATEGORY_OPENABLE);
+            intent.setType("application/zip");
+            startActivityForResult(intent, REQUEST_IMPORT_VAULT);
+            return true;
         } else if (id == R.id.action_about) {
             Intent intent = new Intent(NoteListActivity.this, AboutActivity.class);
             startActivity(intent);
@@ -204,11 +425,59 @@ public class NoteListActivity extends AppCompatActivity {
     @Override
     protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
         super.onActivityResult(requestCode, resultCode, data);
-        if (requestCode == 1 && resultCode == RESULT_OK) {
-            loadNotesFromDatabase();
+        if (requestCode == REQUEST_IMPORT_VAULT && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            importVault(data.getData());
+        }
+    }
+
+    // A lista se atualiza sozinha a cada lote gravado, pelo observador de notas
+    private void importVault(Uri uri) {
+        InputStream zip;
+        try {
+            zip = getContentResolver().openInputStream(uri);
+        } catch (FileNotFoundException e) {
+            zip = null;
+        }
+        if (zip == null) {
+            Toast.makeText(this, R.string.import_failed, Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        repository.importVaultZip(zip, getString(R.string.import_default_category), count -> {
+            if (isFinishing() || isDestroyed() || getSupportActionBar() == null) return;
+            getSupportActionBar().setSubtitle(getResources().getQuantityString(R.plurals.import_progress, count, count));
+        }, result -> {
+            if (isFinishing() || isDestroyed()) return;
+
+            if (getSupportActionBar() != null) {
+                getSupportActionBar().setSubtitle(null);
+            }
+            if (result == null) {
+                Toast.makeText(this, R.string.import_failed, Toast.LENGTH_SHORT).show();
+            } else {
+                int count = result.getImportedCount();
+                Toast.makeText(this, getResources().getQuantityString(R.plurals.import_finished, count, count),
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Sem mudanças desde a última carga, voltar para a tela não consulta o banco
+        if (listStale) {
+            refreshVisibleContent();
         }
     }
 
+    @Override
+    protected void onDestroy() {
+        mainHandler.removeCallbacksAndMessages(null);
+        notesSubscription.cancel();
+        super.onDestroy();
+    }
+
     private ActionMode.Callback actionModeCallback = new ActionMode.Callback() {
         @Override
         public boolean onCreateActionMode(ActionMode mode, Menu menu) {
@@ -218,28 +487,28 @@ public class NoteListActivity extends AppCompatActivity {
 
         @Override
         public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
-            return false;
+            // Editar só faz sentido com uma nota selecionada
+            menu.findItem(R.id.action_edit).setVisible(noteAdapter.getSelectedIds().size() == 1);
+            return true;
         }
 
         @Override
         public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
-            if (selectedPosition < 0 || selectedPosition >= noteList.size()) {
+            List<Integer> selectedIds = noteAdapter.getSelectedIds();
+            if (selectedIds.isEmpty()) {
                 mode.finish();
                 return false;
             }
 
-            Note selectedNote = noteList.get(selectedPosition);
             int itemId = item.getItemId();
 
             if (itemId == R.id.action_edit) {
-                Intent intent = new Intent(NoteListActivity.this, NoteFormActivity.class);
-                intent.putExtra("note_id", selectedNote.getId());
-                startActivityForResult(intent, 1);
+                openNoteForEditing(selectedIds.get(0));
                 mode.finish();
                 return true;
             } else if (itemId == R.id.action_delete) {
-                showDeleteConfirmationDialog(selectedNote, selectedPosition);
-                mode.finish();
+                // O modo só fecha depois da confirmação, para não perder a seleção
+                showBulkDeleteConfirmationDialog(selectedIds);
                 return true;
             }
 
@@ -249,7 +518,7 @@ public class NoteListActivity extends AppCompatActivity {
         @Override
         public void onDestroyActionMode(ActionMode mode) {
             actionMode = null;
-            selectedPosition = -1;
+            noteAdapter.clearSelection();
         }
     };
 }
\ No newline at end of file
@@ -1,84 +1,192 @@
 package app.vercel.lucasgabrielcosta.mindra.adapter;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.TextView;
 
-import java.text.SimpleDateFormat;
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
 import java.util.ArrayList;
-import java.util.Locale;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import app.vercel.lucasgabrielcosta.mindra.R;
-import app.vercel.lucasgabrielcosta.mindra.model.Note;
-public class NoteAdapter extends BaseAdapter {
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSearchResult;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
 
-    private Context context;
-    private ArrayList<Note> noteList;
-    private SimpleDateFormat dateFormat;
+/**
+ * Lista de notas sobre RecyclerView. O DiffUtil roda fora da thread principal (ListAdapter)
+ * e compara por id, então editar ou excluir uma nota só refaz a linha correspondente.
+ */
+public class NoteAdapter extends ListAdapter<NoteSummary, NoteAdapter.ViewHolder> {
 
-    public NoteAdapter(Context context, ArrayList<Note> noteList) {
-        this.context = context;
-        this.noteList = noteList;
-        this.dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-    }
+    public interface OnNoteClickListener {
+        void onNoteClick(NoteSummary note);
 
-    @Override
-    public int getCount() {
-        return noteList.size();
+        boolean onNoteLongClick(NoteSummary note, View view);
     }
 
-    @Override
-    public Object getItem(int position) {
-        return noteList.get(position);
+    private static final DiffUtil.ItemCallback<NoteSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<NoteSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull NoteSummary oldItem, @NonNull NoteSummary newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull NoteSummary oldItem, @NonNull NoteSummary newItem) {
+            if (oldItem.getClass() != newItem.getClass()) return false;
+            if (oldItem instanceof NoteSearchResult
+                    && !Objects.equals(((NoteSearchResult) oldItem).getSnippet(),
+                    ((NoteSearchResult) newItem).getSnippet())) {
+                return false;
+            }
+
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getCategory(), newItem.getCategory())
+                    && Objects.equals(oldItem.getCreationDate(), newItem.getCreationDate())
+                    && Objects.equals(oldItem.getPreview(), newItem.getPreview())
+                    && oldItem.getConnectionCount() == newItem.getConnectionCount();
+        }
+    };
+
+    // Mudança só de seleção: a linha troca a cor do card sem refazer os textos
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    private final Context context;
+    private final OnNoteClickListener clickListener;
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
+    private final int selectedColor;
+
+    public NoteAdapter(Context context, OnNoteClickListener clickListener) {
+        super(DIFF_CALLBACK);
+        this.context = context;
+        this.clickListener = clickListener;
+        this.selectedColor = ContextCompat.getColor(context, R.color.card_selected);
+        setHasStableIds(true);
     }
 
     @Override
     public long getItemId(int position) {
-        return noteList.get(position).getId();
+        return getItem(position).getId();
     }
 
-    @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        ViewHolder holder;
+    /**
+     * Nota exibida na posição, para quem só conhece a posição (ex.: gestos de swipe).
+     */
+    public NoteSummary getNoteAt(int position) {
+        return getItem(position);
+    }
+
+    /**
+     * Marca ou desmarca a nota para a seleção múltipla e devolve quantas estão marcadas.
+     */
+    public int toggleSelection(int noteId) {
+        if (!selectedIds.remove(noteId)) {
+            selectedIds.add(noteId);
+        }
+        notifySelectionChanged(noteId);
+        return selectedIds.size();
+    }
 
-        if (convertView == null) {
-            convertView = LayoutInflater.from(context).inflate(R.layout.note_list_item, parent, false);
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
 
-            holder = new ViewHolder();
-            holder.tvNoteTitle = convertView.findViewById(R.id.tvNoteTitle);
-            holder.tvCategory = convertView.findViewById(R.id.tvCategory);
-            holder.tvNoteContent = convertView.findViewById(R.id.tvNoteContent);
-            holder.tvDate = convertView.findViewById(R.id.tvDate);
-            holder.tvConnections = convertView.findViewById(R.id.tvConnections);
+    public void clearSelection() {
+        List<Integer> previous = getSelectedIds();
+        selectedIds.clear();
+        for (int noteId : previous) {
+            notifySelectionChanged(noteId);
+        }
+    }
 
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
+    private void notifySelectionChanged(int noteId) {
+        List<NoteSummary> notes = getCurrentList();
+        for (int i = 0; i < notes.size(); i++) {
+            if (notes.get(i).getId() == noteId) {
+                notifyItemChanged(i, PAYLOAD_SELECTION);
+                return;
+            }
         }
+    }
 
-        Note note = noteList.get(position);
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.note_list_item, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                clickListener.onNoteClick(getItem(position));
+            }
+        });
+        view.setOnLongClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            return position != RecyclerView.NO_POSITION && clickListener.onNoteLongClick(getItem(position), v);
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        NoteSummary note = getItem(position);
 
+        // Textos montados por NoteDisplayFormatter fora da thread principal
         holder.tvNoteTitle.setText(note.getTitle());
         holder.tvCategory.setText(note.getCategory());
-        holder.tvNoteContent.setText(note.getContentPreview(100));
-        holder.tvDate.setText(dateFormat.format(note.getCreationDate()));
+        holder.tvNoteContent.setText(note.getDisplayContent());
+        holder.tvDate.setText(note.getDisplayDate());
+        holder.tvConnections.setText(note.getConnectionLabel());
+        bindSelection(holder, note);
+    }
 
-        int connectionCount = note.getConnectionCount();
-        holder.tvConnections.setText(connectionCount + " " +
-                (connectionCount == 1 ? context.getString(R.string.connection_single) :
-                        context.getString(R.string.connection_plural)));
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            bindSelection(holder, getItem(position));
+        }
+    }
 
-        return convertView;
+    private void bindSelection(ViewHolder holder, NoteSummary note) {
+        if (selectedIds.contains(note.getId())) {
+            holder.cardView.setCardBackgroundColor(selectedColor);
+        } else {
+            holder.cardView.setCardBackgroundColor(holder.defaultCardColor);
+        }
     }
 
-    private static class ViewHolder {
-        TextView tvNoteTitle;
-        TextView tvCategory;
-        TextView tvNoteContent;
-        TextView tvDate;
-        TextView tvConnections;
+    public static class ViewHolder extends RecyclerView.ViewHolder {
+        final CardView cardView;
+        final ColorStateList defaultCardColor;
+        final TextView tvNoteTitle;
+        final TextView tvCategory;
+        final TextView tvNoteContent;
+        final TextView tvDate;
+        final TextView tvConnections;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            cardView = (CardView) itemView;
+            defaultCardColor = cardView.getCardBackgroundColor();
+            tvNoteTitle = itemView.findViewById(R.id.tvNoteTitle);
+            tvCategory = itemView.findViewById(R.id.tvCategory);
+            tvNoteContent = itemView.findViewById(R.id.tvNoteContent);
+            tvDate = itemView.findViewById(R.id.tvDate);
+            tvConnections = itemView.findViewById(R.id.tvConnections);
+        }
     }
-}
\ No newline at end of file
+}
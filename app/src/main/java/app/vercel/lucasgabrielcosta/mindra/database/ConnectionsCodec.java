@@ -0,0 +1,91 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificação de listas de conexões como array JSON, o mesmo formato gravado pelo Gson
+ * na antiga coluna notes.connections. Usa apenas a API de streaming (JsonReader/JsonWriter):
+ * sem reflexão, sem instâncias de Gson e sem estado compartilhado, portanto seguro entre threads.
+ * <p>
+ * Desde que as conexões passaram para note_links, o único uso é a leitura da coluna antiga
+ * na MIGRATION_2_3 (pelos conversores de Converters).
+ */
+public final class ConnectionsCodec {
+
+    private ConnectionsCodec() {
+    }
+
+    public static List<String> decode(String value) {
+        List<String> result = new ArrayList<>();
+        if (value == null) {
+            return result;
+        }
+
+        try (JsonReader reader = new JsonReader(new StringReader(value))) {
+            // Mesma tolerância do Gson.fromJson
+            reader.setStrictness(Strictness.LENIENT);
+
+            JsonToken token = reader.peek();
+            if (token == JsonToken.NULL || token == JsonToken.END_DOCUMENT) {
+                return result;
+            }
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.nextNull();
+                    result.add(null);
+                } else {
+                    result.add(reader.nextString());
+                }
+            }
+            reader.endArray();
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+        return result;
+    }
+
+    public static String encode(List<String> list) {
+        if (list == null) {
+            return null;
+        }
+
+        StringWriter out = new StringWriter(estimateLength(list));
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.beginArray();
+            for (int i = 0; i < list.size(); i++) {
+                String value = list.get(i);
+                if (value == null) {
+                    writer.nullValue();
+                } else {
+                    writer.value(value);
+                }
+            }
+            writer.endArray();
+        } catch (IOException e) {
+            // StringWriter não lança IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    private static int estimateLength(List<String> list) {
+        int length = 2;
+        for (int i = 0; i < list.size(); i++) {
+            String value = list.get(i);
+            length += (value != null ? value.length() : 4) + 3;
+        }
+        return length;
+    }
+}
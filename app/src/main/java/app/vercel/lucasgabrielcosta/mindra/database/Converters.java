@@ -2,11 +2,6 @@ package app.vercel.lucasgabrielcosta.mindra.database;
 
 import androidx.room.TypeConverter;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -24,19 +19,11 @@ public class Converters {
 
     @TypeConverter
     public static List<String> fromString(String value) {
-        if (value == null) {
-            return new ArrayList<>();
-        }
-        Type listType = new TypeToken<ArrayList<String>>() {}.getType();
-        return new Gson().fromJson(value, listType);
+        return ConnectionsCodec.decode(value);
     }
 
     @TypeConverter
     public static String fromList(List<String> list) {
-        if (list == null) {
-            return null;
-        }
-        Gson gson = new Gson();
-        return gson.toJson(list);
+        return ConnectionsCodec.encode(list);
     }
 }
\ No newline at end of file
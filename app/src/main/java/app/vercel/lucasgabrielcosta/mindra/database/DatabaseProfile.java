@@ -0,0 +1,155 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import android.database.Cursor;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ajustes de desempenho do SQLite aplicados ao abrir o banco de notas.
+ * <p>
+ * O modo de journal vai para o builder do Room, e não para um PRAGMA, porque o pool de
+ * conexões do Android precisa saber que está em WAL para abrir conexões de leitura
+ * paralelas. Os demais ajustes são PRAGMAs por conexão: a partir da API 30 valem para todas
+ * as conexões do pool (execPerConnectionSQL), inclusive as de leitura abertas depois. Antes
+ * disso o Android não expõe as conexões de leitura, e os PRAGMAs ficam só na conexão
+ * principal, que faz as escritas.
+ */
+public final class DatabaseProfile {
+
+    public enum Synchronous {OFF, NORMAL, FULL}
+
+    /**
+     * Sem ajustes: o que o Room e o SQLite do aparelho decidirem.
+     */
+    public static final DatabaseProfile ROOM_DEFAULTS = new Builder().build();
+
+    /**
+     * WAL com sincronização NORMAL: um commit não espera o fsync do journal, e uma queda de
+     * energia só pode perder as últimas transações, sem corromper o banco.
+     */
+    public static final DatabaseProfile TUNED = new Builder()
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .setMmapSize(64L * 1024 * 1024)
+            .setCacheSizeKb(8 * 1024)
+            .setSynchronous(Synchronous.NORMAL)
+            .setTempStoreInMemory(true)
+            .build();
+
+    private final RoomDatabase.JournalMode journalMode;
+    private final long mmapSize;
+    private final int cacheSizeKb;
+    private final Synchronous synchronous;
+    private final boolean tempStoreInMemory;
+
+    private DatabaseProfile(Builder builder) {
+        this.journalMode = builder.journalMode;
+        this.mmapSize = builder.mmapSize;
+        this.cacheSizeKb = builder.cacheSizeKb;
+        this.synchronous = builder.synchronous;
+        this.tempStoreInMemory = builder.tempStoreInMemory;
+    }
+
+    /**
+     * Modo de journal para RoomDatabase.Builder.setJournalMode, ou null para o padrão do Room.
+     */
+    public RoomDatabase.JournalMode getJournalMode() {
+        return journalMode;
+    }
+
+    public RoomDatabase.Callback asCallback() {
+        return new RoomDatabase.Callback() {
+            @Override
+            public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                apply(db);
+            }
+        };
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    void apply(SupportSQLiteDatabase db) {
+        List<String> pragmas = connectionPragmas();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            for (String statement : pragmas) {
+                db.execPerConnectionSQL("PRAGMA " + statement, null);
+            }
+        } else {
+            for (String statement : pragmas) {
+                pragma(db, statement);
+            }
+        }
+    }
+
+    private List<String> connectionPragmas() {
+        List<String> pragmas = new ArrayList<>();
+        if (mmapSize >= 0) {
+            pragmas.add("mmap_size = " + mmapSize);
+        }
+        if (cacheSizeKb > 0) {
+            // Valor negativo: tamanho em KiB, e não em páginas
+            pragmas.add("cache_size = -" + cacheSizeKb);
+        }
+        if (synchronous != null) {
+            pragmas.add("synchronous = " + synchronous.name());
+        }
+        if (tempStoreInMemory) {
+            pragmas.add("temp_store = MEMORY");
+        }
+        return pragmas;
+    }
+
+    // Alguns PRAGMAs devolvem uma linha, e o execSQL do Android recusa comandos com resultado
+    private static void pragma(SupportSQLiteDatabase db, String statement) {
+        try (Cursor cursor = db.query("PRAGMA " + statement)) {
+            cursor.moveToFirst();
+        }
+    }
+
+    public static final class Builder {
+        private RoomDatabase.JournalMode journalMode;
+        private long mmapSize = -1;
+        private int cacheSizeKb;
+        private Synchronous synchronous;
+        private boolean tempStoreInMemory;
+
+        public Builder setJournalMode(RoomDatabase.JournalMode journalMode) {
+            this.journalMode = journalMode;
+            return this;
+        }
+
+        /**
+         * Bytes do arquivo lidos por mmap; 0 desliga. O SQLite limita ao máximo da compilação.
+         */
+        public Builder setMmapSize(long bytes) {
+            this.mmapSize = bytes;
+            return this;
+        }
+
+        public Builder setCacheSizeKb(int kilobytes) {
+            this.cacheSizeKb = kilobytes;
+            return this;
+        }
+
+        public Builder setSynchronous(Synchronous synchronous) {
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        public Builder setTempStoreInMemory(boolean inMemory) {
+            this.tempStoreInMemory = inMemory;
+            return this;
+        }
+
+        public DatabaseProfile build() {
+            return new DatabaseProfile(this);
+        }
+    }
+}
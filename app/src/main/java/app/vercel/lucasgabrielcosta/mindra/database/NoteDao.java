@@ -1,36 +1,320 @@
 package app.vercel.lucasgabrielcosta.mindra.database;
 
 import androidx.room.Dao;
-import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteLink;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteMatch;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteNode;
+import app.vercel.lucasgabrielcosta.mindra.model.NotePosition;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSearchResult;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
 
 @Dao
 public interface NoteDao {
 
+    // Abaixo do limite de 999 variáveis por comando do SQLite das versões antigas do Android
+    int MAX_BIND_ARGS = 500;
+
+    String SUMMARY_COLUMNS = "id, title, category, creationDate, " +
+            "(SELECT COUNT(*) FROM note_links WHERE note_links.source_id = notes.id) AS connectionCount, " +
+            "substr(content, 1, " + (NoteSummary.PREVIEW_LENGTH + 1) + ") AS preview";
+
+    // Listagens cujo plano de consulta é conferido no NoteQueryPlanTest
+
+    String ALL_NOTES_QUERY = "SELECT * FROM notes ORDER BY creationDate DESC";
+
+    String NOTES_BY_CATEGORY_QUERY = "SELECT * FROM notes WHERE category = :category ORDER BY creationDate DESC";
+
+    String ALL_NODES_QUERY = "SELECT id, title FROM notes ORDER BY creationDate DESC";
+
+    String FIRST_PAGE_QUERY = "SELECT " + SUMMARY_COLUMNS + " FROM notes " +
+            "ORDER BY creationDate DESC, id DESC LIMIT :limit";
+
+    // Paginação por chave (creationDate, id): custo constante por página, sem OFFSET.
+    // O "creationDate <= :beforeDate" fora do OR deixa o SQLite buscar direto no índice
+    String PAGE_BEFORE_QUERY = "SELECT " + SUMMARY_COLUMNS + " FROM notes " +
+            "WHERE creationDate <= :beforeDate AND (creationDate < :beforeDate OR id < :beforeId) " +
+            "ORDER BY creationDate DESC, id DESC LIMIT :limit";
+
+    // Inserção, atualização e exclusão mantêm note_links na mesma transação da nota
+
+    @Transaction
+    default long insert(Note note) {
+        long id = insertNote(note);
+        note.setId((int) id);
+        insertLinksFor(note);
+        attachLinksTo(note.getId(), note.getTitle());
+        return id;
+    }
+
+    @Transaction
+    default void update(Note note) {
+        String previousTitle = getTitleById(note.getId());
+        updateNote(note);
+
+        deleteLinksFrom(note.getId());
+        insertLinksFor(note);
+
+        if (previousTitle != null && !previousTitle.equals(note.getTitle())) {
+            detachLinksTo(note.getId());
+            resolveLinksTo(previousTitle);
+        }
+        attachLinksTo(note.getId(), note.getTitle());
+    }
+
+    @Transaction
+    default void delete(Note note) {
+        deleteById(note.getId());
+    }
+
+    @Transaction
+    default void deleteById(int id) {
+        String title = getTitleById(id);
+        deleteLinksFrom(id);
+        detachLinksTo(id);
+        deleteNoteById(id);
+        if (title != null) {
+            resolveLinksTo(title);
+        }
+    }
+
+    @Transaction
+    default void deleteAll() {
+        deleteAllLinks();
+        deleteAllNotes();
+    }
+
+    // Operações em lote: uma única transação para todas as notas e suas conexões
+
+    /**
+     * Insere as notas e suas conexões de uma vez. Os destinos das conexões (novas e órfãs
+     * antigas) são resolvidos por título ao final, em um único UPDATE.
+     */
+    @Transaction
+    default List<Long> insertAll(List<Note> notes) {
+        List<Long> ids = insertWithUnresolvedLinks(notes);
+        resolveOrphanLinks();
+        return ids;
+    }
+
+    default List<Long> insertAll(Note... notes) {
+        return insertAll(Arrays.asList(notes));
+    }
+
+    /**
+     * Como insertAll, mas as conexões ficam sem destino até resolveOrphanLinks(). Uma
+     * importação em vários lotes resolve todas uma única vez, ao final.
+     */
+    @Transaction
+    default List<Long> insertWithUnresolvedLinks(List<Note> notes) {
+        List<Long> ids = insertNotes(notes);
+        List<NoteLink> links = new ArrayList<>();
+        for (int i = 0; i < notes.size(); i++) {
+            Note note = notes.get(i);
+            note.setId(ids.get(i).intValue());
+
+            List<String> connections = note.getConnections();
+            if (connections == null) continue;
+            for (String targetTitle : connections) {
+                links.add(new NoteLink(note.getId(), targetTitle, null));
+            }
+        }
+        if (!links.isEmpty()) {
+            insertLinks(links);
+        }
+        return ids;
+    }
+
+    @Transaction
+    default void updateAll(List<Note> notes) {
+        for (Note note : notes) {
+            update(note);
+        }
+    }
+
+    default void updateAll(Note... notes) {
+        updateAll(Arrays.asList(notes));
+    }
+
+    /**
+     * Exclui as notas e suas conexões. Conexões de outras notas que apontavam para elas
+     * ficam órfãs e são reapontadas para outra nota com o mesmo título, se houver.
+     */
+    @Transaction
+    default void deleteAllById(List<Integer> ids) {
+        for (int start = 0; start < ids.size(); start += MAX_BIND_ARGS) {
+            List<Integer> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_BIND_ARGS));
+            deleteLinksFromAll(chunk);
+            detachLinksToAll(chunk);
+            deleteNotesById(chunk);
+        }
+        resolveOrphanLinks();
+    }
+
+    default void deleteAllById(Integer... ids) {
+        deleteAllById(Arrays.asList(ids));
+    }
+
+    default void insertLinksFor(Note note) {
+        List<String> connections = note.getConnections();
+        if (connections == null || connections.isEmpty()) return;
+
+        List<NoteLink> links = new ArrayList<>(connections.size());
+        for (String targetTitle : connections) {
+            links.add(new NoteLink(note.getId(), targetTitle, findIdByTitle(targetTitle)));
+        }
+        insertLinks(links);
+    }
+
+    @Insert
+    long insertNote(Note note);
+
     @Insert
-    long insert(Note note);
+    List<Long> insertNotes(List<Note> notes);
 
     @Update
-    void update(Note note);
+    void updateNote(Note note);
 
-    @Delete
-    void delete(Note note);
+    @Query("DELETE FROM notes WHERE id = :id")
+    void deleteNoteById(int id);
 
-    @Query("SELECT * FROM notes ORDER BY creationDate DESC")
+    @Query("DELETE FROM notes WHERE id IN (:ids)")
+    void deleteNotesById(List<Integer> ids);
+
+    @Query("DELETE FROM notes")
+    void deleteAllNotes();
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertLinks(List<NoteLink> links);
+
+    @Query("DELETE FROM note_links WHERE source_id = :sourceId")
+    void deleteLinksFrom(int sourceId);
+
+    @Query("DELETE FROM note_links WHERE source_id IN (:sourceIds)")
+    void deleteLinksFromAll(List<Integer> sourceIds);
+
+    @Query("DELETE FROM note_links")
+    void deleteAllLinks();
+
+    // Conexões órfãs com esse título passam a apontar para a nota
+    @Query("UPDATE note_links SET target_id = :noteId WHERE target_title = :title AND target_id IS NULL")
+    void attachLinksTo(int noteId, String title);
+
+    @Query("UPDATE note_links SET target_id = NULL WHERE target_id = :noteId")
+    void detachLinksTo(int noteId);
+
+    @Query("UPDATE note_links SET target_id = NULL WHERE target_id IN (:noteIds)")
+    void detachLinksToAll(List<Integer> noteIds);
+
+    // Reaponta conexões órfãs para outra nota com o mesmo título, se houver
+    @Query("UPDATE note_links SET target_id = " +
+            "(SELECT id FROM notes WHERE notes.title = note_links.target_title ORDER BY id LIMIT 1) " +
+            "WHERE target_title = :title AND target_id IS NULL")
+    void resolveLinksTo(String title);
+
+    // Todas as conexões órfãs de uma vez, pelo índice de target_id e pelo de notes.title
+    @Query("UPDATE note_links SET target_id = " +
+            "(SELECT id FROM notes WHERE notes.title = note_links.target_title ORDER BY id LIMIT 1) " +
+            "WHERE target_id IS NULL")
+    void resolveOrphanLinks();
+
+    @Query("SELECT id FROM notes WHERE title = :title ORDER BY id LIMIT 1")
+    Integer findIdByTitle(String title);
+
+    @Query("SELECT title FROM notes WHERE id = :id")
+    String getTitleById(int id);
+
+    @Query(ALL_NOTES_QUERY)
     List<Note> getAllNotes();
 
+    @Query(FIRST_PAGE_QUERY)
+    List<NoteSummary> getFirstPage(int limit);
+
+    @Query(PAGE_BEFORE_QUERY)
+    List<NoteSummary> getPageBefore(long beforeDate, int beforeId, int limit);
+
+    @Transaction
+    @Query(ALL_NODES_QUERY)
+    List<NoteNode> getAllNodes();
+
+    @Query("SELECT * FROM note_positions")
+    List<NotePosition> getAllPositions();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertPositions(List<NotePosition> positions);
+
+    // Backlinks: notas que citam :noteId, pelo índice de note_links.target_id
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM notes " +
+            "WHERE id IN (SELECT source_id FROM note_links WHERE target_id = :noteId) " +
+            "ORDER BY creationDate DESC, id DESC")
+    List<NoteSummary> getBacklinks(int noteId);
+
+    @Query("SELECT COUNT(*) FROM note_links WHERE target_id = :noteId")
+    int countBacklinks(int noteId);
+
+    @Query("SELECT * FROM note_links WHERE source_id = :sourceId")
+    List<NoteLink> getLinksFrom(int sourceId);
+
+    /**
+     * Busca de texto completo no índice notes_fts, com as :limit notas mais relevantes
+     * (NoteSearchResult.getScore()). Todas as notas encontradas são ordenadas antes do corte,
+     * mas só as que ficam têm snippet e contagem de conexões calculados. :limit deve ficar
+     * abaixo de MAX_BIND_ARGS.
+     */
+    @Transaction
+    default List<NoteSearchResult> search(String query, int limit) {
+        List<NoteMatch> matches = findMatches(query);
+        // Empate: a mais recente primeiro
+        Collections.sort(matches, (a, b) -> {
+            int byScore = Float.compare(b.getScore(), a.getScore());
+            return byScore != 0 ? byScore : Integer.compare(b.getId(), a.getId());
+        });
+
+        int count = Math.min(limit, matches.size());
+        if (count == 0) return new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(count);
+        Map<Integer, Integer> rank = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(matches.get(i).getId());
+            rank.put(matches.get(i).getId(), i);
+        }
+
+        List<NoteSearchResult> results = loadSearchResults(query, ids);
+        Collections.sort(results, (a, b) -> Integer.compare(rank.get(a.getId()), rank.get(b.getId())));
+        return results;
+    }
+
+    // Só o docid e o matchinfo de cada nota encontrada, sem ler a tabela notes
+    @Query("SELECT docid AS id, matchinfo(notes_fts, 'pcx') AS matchInfo " +
+            "FROM notes_fts WHERE notes_fts MATCH :query")
+    List<NoteMatch> findMatches(String query);
+
+    // O snippet marca os termos com char(2)/char(3); precisa do MATCH na mesma consulta
+    @Query("SELECT notes.id, notes.title, notes.category, notes.creationDate, " +
+            "(SELECT COUNT(*) FROM note_links WHERE note_links.source_id = notes.id) AS connectionCount, " +
+            "substr(notes.content, 1, " + (NoteSummary.PREVIEW_LENGTH + 1) + ") AS preview, " +
+            "snippet(notes_fts, char(2), char(3), '...', -1, 16) AS snippet, " +
+            "matchinfo(notes_fts, 'pcx') AS matchInfo " +
+            "FROM notes_fts JOIN notes ON notes.id = notes_fts.docid " +
+            "WHERE notes_fts MATCH :query AND notes_fts.docid IN (:ids)")
+    List<NoteSearchResult> loadSearchResults(String query, List<Integer> ids);
+
     @Query("SELECT * FROM notes WHERE id = :id")
     Note getNoteById(int id);
 
-    @Query("SELECT * FROM notes WHERE category = :category ORDER BY creationDate DESC")
+    @Query(NOTES_BY_CATEGORY_QUERY)
     List<Note> getNotesByCategory(String category);
-
-    @Query("DELETE FROM notes")
-    void deleteAll();
-}
\ No newline at end of file
+}
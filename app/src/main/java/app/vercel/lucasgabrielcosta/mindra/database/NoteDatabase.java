@@ -1,32 +1,150 @@
 package app.vercel.lucasgabrielcosta.mindra.database;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.util.List;
 
 import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteFts;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteLink;
+import app.vercel.lucasgabrielcosta.mindra.model.NotePosition;
 
-@Database(entities = {Note.class}, version = 1, exportSchema = false)
+@Database(entities = {Note.class, NoteFts.class, NoteLink.class, NotePosition.class}, version = 5,
+        exportSchema = false)
 public abstract class NoteDatabase extends RoomDatabase {
 
     public abstract NoteDao noteDao();
 
+    private static final String DATABASE_NAME = "notes_database";
+
     private static volatile NoteDatabase INSTANCE;
 
+    // Versão 2: índice de texto completo notes_fts, com os mesmos gatilhos que o Room gera
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `notes_fts` USING FTS4(" +
+                    "`title` TEXT, `content` TEXT, `category` TEXT, tokenize=unicode61, content=`notes`)");
+            createFtsTriggers(db);
+            db.execSQL("INSERT INTO `notes_fts`(`notes_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    // Versão 3: conexões normalizadas em note_links; a coluna JSON notes.connections deixa de existir
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_links` (" +
+                    "`source_id` INTEGER NOT NULL, `target_title` TEXT NOT NULL, `target_id` INTEGER, " +
+                    "PRIMARY KEY(`source_id`, `target_title`), " +
+                    "FOREIGN KEY(`source_id`) REFERENCES `notes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , " +
+                    "FOREIGN KEY(`target_id`) REFERENCES `notes`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_links_target_title` ON `note_links` (`target_title`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_note_links_target_id` ON `note_links` (`target_id`)");
+
+            backfillLinks(db);
+
+            // SQLite não remove colunas em versões antigas: recria a tabela sem connections
+            db.execSQL("CREATE TABLE IF NOT EXISTS `notes_new` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `title` TEXT, `content` TEXT, " +
+                    "`category` TEXT, `creationDate` INTEGER)");
+            db.execSQL("INSERT INTO `notes_new` (`id`, `title`, `content`, `category`, `creationDate`) " +
+                    "SELECT `id`, `title`, `content`, `category`, `creationDate` FROM `notes`");
+            db.execSQL("DROP TABLE `notes`");
+            db.execSQL("ALTER TABLE `notes_new` RENAME TO `notes`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_title` ON `notes` (`title`)");
+            createFtsTriggers(db);
+
+            db.execSQL("UPDATE `note_links` SET `target_id` = " +
+                    "(SELECT `id` FROM `notes` WHERE `notes`.`title` = `note_links`.`target_title` ORDER BY `id` LIMIT 1)");
+        }
+    };
+
+    // Versão 4: posições do grafo salvas por nota
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `note_positions` (" +
+                    "`note_id` INTEGER NOT NULL, `x` REAL NOT NULL, `y` REAL NOT NULL, " +
+                    "`link_hash` INTEGER NOT NULL, PRIMARY KEY(`note_id`), " +
+                    "FOREIGN KEY(`note_id`) REFERENCES `notes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+        }
+    };
+
+    // Versão 5: listagens por data e por categoria deixam de varrer e ordenar a tabela inteira
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_creationDate` ON `notes` (`creationDate`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_notes_category_creationDate` " +
+                    "ON `notes` (`category`, `creationDate`)");
+        }
+    };
+
+    private static void backfillLinks(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT `id`, `connections` FROM `notes` WHERE `connections` IS NOT NULL")) {
+            while (cursor.moveToNext()) {
+                int sourceId = cursor.getInt(0);
+                List<String> targetTitles = Converters.fromString(cursor.getString(1));
+                if (targetTitles == null) continue;
+
+                for (String targetTitle : targetTitles) {
+                    if (targetTitle == null) continue;
+
+                    ContentValues values = new ContentValues();
+                    values.put("source_id", sourceId);
+                    values.put("target_title", targetTitle);
+                    db.insert("note_links", SQLiteDatabase.CONFLICT_IGNORE, values);
+                }
+            }
+        }
+    }
+
+    static void createFtsTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_BEFORE_UPDATE " +
+                "BEFORE UPDATE ON `notes` BEGIN DELETE FROM `notes_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_BEFORE_DELETE " +
+                "BEFORE DELETE ON `notes` BEGIN DELETE FROM `notes_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_AFTER_UPDATE " +
+                "AFTER UPDATE ON `notes` BEGIN INSERT INTO `notes_fts`(`docid`, `title`, `content`, `category`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`content`, NEW.`category`); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_notes_fts_AFTER_INSERT " +
+                "AFTER INSERT ON `notes` BEGIN INSERT INTO `notes_fts`(`docid`, `title`, `content`, `category`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`content`, NEW.`category`); END");
+    }
+
     public static NoteDatabase getDatabase(final Context context) {
         if (INSTANCE == null) {
             synchronized (NoteDatabase.class) {
                 if (INSTANCE == null) {
-                    INSTANCE = Room.databaseBuilder(
-                                    context.getApplicationContext(),
-                                    NoteDatabase.class, "notes_database")
-                            .allowMainThreadQueries()
-                            .build();
+                    INSTANCE = create(context, DATABASE_NAME, DatabaseProfile.TUNED);
                 }
             }
         }
         return INSTANCE;
     }
-}
\ No newline at end of file
+
+    /**
+     * Abre um banco de notas com o perfil de desempenho indicado. Fora de testes, use getDatabase.
+     */
+    static NoteDatabase create(Context context, String name, DatabaseProfile profile) {
+        RoomDatabase.Builder<NoteDatabase> builder = Room.databaseBuilder(
+                        context.getApplicationContext(), NoteDatabase.class, name)
+                .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5)
+                .addCallback(profile.asCallback());
+        if (profile.getJournalMode() != null) {
+            builder.setJournalMode(profile.getJournalMode());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,238 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+/**
+ * Quadtree de Barnes-Hut para aproximar a repulsão entre todos os pares de nós em O(N log N).
+ * Uma célula distante (tamanho / distância &lt; theta) é tratada como um único corpo com a massa
+ * de todos os nós que contém, posicionado no seu centro de massa.
+ * <p>
+ * Toda a árvore vive em arrays primitivos reaproveitados entre iterações: reconstruí-la a cada
+ * passo do layout não cria objetos.
+ */
+public class BarnesHutTree {
+
+    private static final int EMPTY = -1;
+    private static final int INTERNAL = -2;
+    private static final int MAX_DEPTH = 40;
+
+    // Por célula
+    private float[] centerX;
+    private float[] centerY;
+    private float[] halfSize;
+    private float[] mass;
+    private float[] massX;
+    private float[] massY;
+    private int[] body;
+    private int[] firstChild;
+    private int cellCount;
+
+    private int[] stack = new int[64];
+
+    private float[] x;
+    private float[] y;
+
+    public BarnesHutTree() {
+        allocate(64);
+    }
+
+    private void allocate(int capacity) {
+        centerX = new float[capacity];
+        centerY = new float[capacity];
+        halfSize = new float[capacity];
+        mass = new float[capacity];
+        massX = new float[capacity];
+        massY = new float[capacity];
+        body = new int[capacity];
+        firstChild = new int[capacity];
+    }
+
+    private void ensureCapacity(int cells) {
+        if (cells <= body.length) return;
+
+        int capacity = Math.max(cells, body.length * 2);
+        centerX = grow(centerX, capacity);
+        centerY = grow(centerY, capacity);
+        halfSize = grow(halfSize, capacity);
+        mass = grow(mass, capacity);
+        massX = grow(massX, capacity);
+        massY = grow(massY, capacity);
+
+        int[] grownBody = new int[capacity];
+        System.arraycopy(body, 0, grownBody, 0, cellCount);
+        body = grownBody;
+        int[] grownChild = new int[capacity];
+        System.arraycopy(firstChild, 0, grownChild, 0, cellCount);
+        firstChild = grownChild;
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        float[] grown = new float[capacity];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    /**
+     * Reconstrói a árvore para as posições informadas. Os arrays são referenciados, não copiados.
+     */
+    public void build(float[] x, float[] y, int count) {
+        this.x = x;
+        this.y = y;
+        cellCount = 0;
+        if (count == 0) return;
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        ensureCapacity(4 * count + 1);
+        float half = Math.max(maxX - minX, maxY - minY) / 2f + 1f;
+        newCell((minX + maxX) / 2f, (minY + maxY) / 2f, half);
+
+        for (int i = 0; i < count; i++) {
+            insert(i);
+        }
+
+        // massX/massY passam de somas a centros de massa
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (mass[cell] > 0f) {
+                massX[cell] /= mass[cell];
+                massY[cell] /= mass[cell];
+            }
+        }
+    }
+
+    private int newCell(float cx, float cy, float half) {
+        ensureCapacity(cellCount + 1);
+        int cell = cellCount++;
+        centerX[cell] = cx;
+        centerY[cell] = cy;
+        halfSize[cell] = half;
+        mass[cell] = 0f;
+        massX[cell] = 0f;
+        massY[cell] = 0f;
+        body[cell] = EMPTY;
+        firstChild[cell] = EMPTY;
+        return cell;
+    }
+
+    private void insert(int i) {
+        float px = x[i];
+        float py = y[i];
+        int cell = 0;
+
+        for (int depth = 0; ; depth++) {
+            // Acumula o centro de massa ao descer
+            massX[cell] += px;
+            massY[cell] += py;
+            mass[cell] += 1f;
+
+            if (body[cell] == EMPTY && firstChild[cell] == EMPTY) {
+                body[cell] = i;
+                return;
+            }
+
+            if (body[cell] >= 0) {
+                if (depth >= MAX_DEPTH) {
+                    // Pontos (quase) coincidentes: a folha passa a agregar mais de um nó
+                    return;
+                }
+
+                // Folha ocupada: subdivide e empurra o corpo existente um nível abaixo
+                int existing = body[cell];
+                body[cell] = INTERNAL;
+                subdivide(cell);
+
+                int child = childFor(cell, x[existing], y[existing]);
+                massX[child] += x[existing];
+                massY[child] += y[existing];
+                mass[child] += 1f;
+                body[child] = existing;
+            }
+
+            cell = childFor(cell, px, py);
+        }
+    }
+
+    private void subdivide(int cell) {
+        float half = halfSize[cell] / 2f;
+        float cx = centerX[cell];
+        float cy = centerY[cell];
+
+        int first = newCell(cx - half, cy - half, half);
+        newCell(cx + half, cy - half, half);
+        newCell(cx - half, cy + half, half);
+        newCell(cx + half, cy + half, half);
+        firstChild[cell] = first;
+    }
+
+    private int childFor(int cell, float px, float py) {
+        int quadrant = (px >= centerX[cell] ? 1 : 0) + (py >= centerY[cell] ? 2 : 0);
+        return firstChild[cell] + quadrant;
+    }
+
+    /**
+     * Soma em (outDx[i], outDy[i]) a repulsão k²/d exercida sobre o nó i por todos os demais.
+     *
+     * @param theta critério de abertura; 0 percorre a árvore inteira (resultado exato)
+     */
+    public void accumulateRepulsion(int i, float k2, float theta, float minDistanceSq,
+                                    float[] outDx, float[] outDy) {
+        if (cellCount == 0) return;
+
+        float px = x[i];
+        float py = y[i];
+        float thetaSq = theta * theta;
+        float forceX = 0f;
+        float forceY = 0f;
+
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int cell = stack[--top];
+            float cellMass = mass[cell];
+            if (cellMass == 0f) continue;
+
+            if (body[cell] == i && cellMass == 1f) continue;
+
+            float ddx = px - massX[cell];
+            float ddy = py - massY[cell];
+            float distanceSq = ddx * ddx + ddy * ddy;
+
+            boolean leaf = firstChild[cell] == EMPTY;
+            float size = 2f * halfSize[cell];
+
+            if (leaf || size * size < thetaSq * distanceSq) {
+                if (distanceSq < minDistanceSq) {
+                    // Corpos sobrepostos ao nó i não têm direção definida
+                    continue;
+                }
+                float factor = k2 * cellMass / distanceSq;
+                forceX += ddx * factor;
+                forceY += ddy * factor;
+            } else {
+                if (top + 4 > stack.length) {
+                    int[] grown = new int[stack.length * 2];
+                    System.arraycopy(stack, 0, grown, 0, top);
+                    stack = grown;
+                }
+                int first = firstChild[cell];
+                stack[top++] = first;
+                stack[top++] = first + 1;
+                stack[top++] = first + 2;
+                stack[top++] = first + 3;
+            }
+        }
+
+        outDx[i] += forceX;
+        outDy[i] += forceY;
+    }
+
+    int getCellCount() {
+        return cellCount;
+    }
+}
@@ -0,0 +1,128 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+/**
+ * Geometria das arestas visíveis de um quadro: segmentos entre as bordas dos círculos
+ * (no formato de Canvas.drawLines) e os três vértices da ponta de seta de cada um.
+ * Os buffers crescem apenas quando o número de arestas aumenta; montar um quadro não aloca.
+ */
+public class EdgeGeometry {
+
+    private static final double ARROW_SPREAD = Math.PI / 6;
+
+    private float[] lines = new float[0];
+    private float[] arrows = new float[0];
+    private int edgeCount;
+
+    public void ensureCapacity(int edges) {
+        if (lines.length < edges * 4) {
+            lines = new float[edges * 4];
+            arrows = new float[edges * 6];
+        }
+    }
+
+    /**
+     * Monta a geometria das arestas cujo retângulo envolvente intersecta a área visível.
+     *
+     * @return quantidade de arestas geradas
+     */
+    public int build(float[] x, float[] y, int[] edgeSource, int[] edgeTarget, int edges,
+                     float nodeRadius, float arrowSize,
+                     float left, float top, float right, float bottom) {
+        ensureCapacity(edges);
+        int count = 0;
+
+        for (int e = 0; e < edges; e++) {
+            int source = edgeSource[e];
+            int target = edgeTarget[e];
+            if (source == target) continue;
+
+            float sourceX = x[source];
+            float sourceY = y[source];
+            float targetX = x[target];
+            float targetY = y[target];
+
+            if (Math.max(sourceX, targetX) < left || Math.min(sourceX, targetX) > right
+                    || Math.max(sourceY, targetY) < top || Math.min(sourceY, targetY) > bottom) {
+                continue;
+            }
+
+            double angle = Math.atan2(targetY - sourceY, targetX - sourceX);
+            float cos = (float) Math.cos(angle);
+            float sin = (float) Math.sin(angle);
+
+            float endX = targetX - nodeRadius * cos;
+            float endY = targetY - nodeRadius * sin;
+
+            int l = count * 4;
+            lines[l] = sourceX + nodeRadius * cos;
+            lines[l + 1] = sourceY + nodeRadius * sin;
+            lines[l + 2] = endX;
+            lines[l + 3] = endY;
+
+            int a = count * 6;
+            arrows[a] = endX;
+            arrows[a + 1] = endY;
+            arrows[a + 2] = (float) (endX - arrowSize * Math.cos(angle - ARROW_SPREAD));
+            arrows[a + 3] = (float) (endY - arrowSize * Math.sin(angle - ARROW_SPREAD));
+            arrows[a + 4] = (float) (endX - arrowSize * Math.cos(angle + ARROW_SPREAD));
+            arrows[a + 5] = (float) (endY - arrowSize * Math.sin(angle + ARROW_SPREAD));
+
+            count++;
+        }
+
+        edgeCount = count;
+        return count;
+    }
+
+    /**
+     * Versão reduzida para zoom distante: segmentos centro a centro, sem setas e sem
+     * trigonometria. Apenas o buffer de linhas é preenchido.
+     *
+     * @return quantidade de arestas geradas
+     */
+    public int buildSegments(float[] x, float[] y, int[] edgeSource, int[] edgeTarget, int edges,
+                             float left, float top, float right, float bottom) {
+        ensureCapacity(edges);
+        int count = 0;
+
+        for (int e = 0; e < edges; e++) {
+            float sourceX = x[edgeSource[e]];
+            float sourceY = y[edgeSource[e]];
+            float targetX = x[edgeTarget[e]];
+            float targetY = y[edgeTarget[e]];
+
+            if (Math.max(sourceX, targetX) < left || Math.min(sourceX, targetX) > right
+                    || Math.max(sourceY, targetY) < top || Math.min(sourceY, targetY) > bottom) {
+                continue;
+            }
+
+            int l = count * 4;
+            lines[l] = sourceX;
+            lines[l + 1] = sourceY;
+            lines[l + 2] = targetX;
+            lines[l + 3] = targetY;
+            count++;
+        }
+
+        edgeCount = count;
+        return count;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * x1, y1, x2, y2 por aresta, pronto para Canvas.drawLines(lines, 0, edgeCount * 4, paint).
+     */
+    public float[] getLines() {
+        return lines;
+    }
+
+    /**
+     * Ponta, lado esquerdo e lado direito da seta (6 valores por aresta).
+     */
+    public float[] getArrows() {
+        return arrows;
+    }
+}
@@ -0,0 +1,274 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+/**
+ * Layout por forças no estilo Fruchterman-Reingold, em Java puro e sobre arrays primitivos.
+ * Nós se repelem (k²/d), arestas atraem (d²/k) e uma gravidade fraca mantém componentes
+ * desconexos próximos do centro. O deslocamento por iteração é limitado por uma
+ * temperatura que esfria até o layout convergir.
+ * <p>
+ * A repulsão usa {@link BarnesHutTree} (O(N log N) por iteração) com o theta configurado;
+ * theta = 0 volta ao cálculo exato entre todos os pares (O(N²)).
+ * <p>
+ * Para atualizações incrementais, {@link #resumeFrom} parte das posições anteriores e move
+ * apenas os nós indicados, a partir de uma temperatura baixa.
+ * <p>
+ * Não é thread-safe: deve ser usado por uma única thread (ver {@link LayoutRunner}).
+ */
+public class ForceLayout {
+
+    private static final float INITIAL_TEMPERATURE_FACTOR = 0.5f;
+    private static final float RESUME_TEMPERATURE_FACTOR = 2f;
+    private static final float COOLING = 0.92f;
+    private static final float MIN_TEMPERATURE_FACTOR = 0.01f;
+    private static final float GRAVITY = 0.02f;
+    private static final float MIN_DISTANCE = 0.01f;
+    static final int DEFAULT_MAX_ITERATIONS = 200;
+    public static final float DEFAULT_THETA = 0.8f;
+
+    private final int nodeCount;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final float idealDistance;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] dx;
+    private final float[] dy;
+    private boolean[] movable;
+    private int movableCount;
+
+    private float temperature;
+    private final float minTemperature;
+    private int iteration;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+    private float theta = DEFAULT_THETA;
+    private final BarnesHutTree tree = new BarnesHutTree();
+
+    /**
+     * @param nodeCount     quantidade de nós, indexados de 0 a nodeCount - 1
+     * @param edgeSource    origem de cada aresta
+     * @param edgeTarget    destino de cada aresta (mesmo tamanho de edgeSource)
+     * @param idealDistance distância desejada entre nós vizinhos (o k do algoritmo)
+     */
+    public ForceLayout(int nodeCount, int[] edgeSource, int[] edgeTarget, float idealDistance) {
+        if (edgeSource.length != edgeTarget.length) {
+            throw new IllegalArgumentException("edgeSource e edgeTarget devem ter o mesmo tamanho");
+        }
+
+        this.nodeCount = nodeCount;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.idealDistance = idealDistance;
+
+        x = new float[nodeCount];
+        y = new float[nodeCount];
+        dx = new float[nodeCount];
+        dy = new float[nodeCount];
+
+        temperature = idealDistance * INITIAL_TEMPERATURE_FACTOR * (float) Math.sqrt(Math.max(nodeCount, 1));
+        minTemperature = idealDistance * MIN_TEMPERATURE_FACTOR;
+        movableCount = nodeCount;
+        seedPositions();
+    }
+
+    /**
+     * Posições iniciais determinísticas em espiral (ângulo áureo), sem aleatoriedade:
+     * o mesmo grafo sempre produz o mesmo layout.
+     */
+    private void seedPositions() {
+        final double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+        for (int i = 0; i < nodeCount; i++) {
+            double radius = idealDistance * Math.sqrt(i + 0.5);
+            double angle = i * goldenAngle;
+            x[i] = (float) (radius * Math.cos(angle));
+            y[i] = (float) (radius * Math.sin(angle));
+        }
+    }
+
+    /**
+     * Retoma um layout anterior. Nós com hasPosition[i] partem da posição informada; os demais
+     * começam junto dos vizinhos já posicionados (ou na espiral inicial, se não tiverem nenhum).
+     * Só os nós com movable[i], e os sem posição, se deslocam; o restante do grafo fica parado,
+     * mas continua exercendo força sobre eles.
+     */
+    public void resumeFrom(float[] px, float[] py, boolean[] hasPosition, boolean[] movable) {
+        this.movable = new boolean[nodeCount];
+        movableCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (hasPosition[i]) {
+                x[i] = px[i];
+                y[i] = py[i];
+            }
+            this.movable[i] = movable[i] || !hasPosition[i];
+            if (this.movable[i]) movableCount++;
+        }
+
+        placeNearNeighbors(hasPosition);
+        temperature = Math.min(temperature, idealDistance * RESUME_TEMPERATURE_FACTOR);
+    }
+
+    // Nós novos nascem no centro dos vizinhos posicionados, com um desvio para não se sobreporem
+    private void placeNearNeighbors(boolean[] hasPosition) {
+        float[] sumX = new float[nodeCount];
+        float[] sumY = new float[nodeCount];
+        int[] neighbors = new int[nodeCount];
+
+        for (int e = 0; e < edgeSource.length; e++) {
+            int s = edgeSource[e];
+            int t = edgeTarget[e];
+            if (!hasPosition[s] && hasPosition[t]) {
+                sumX[s] += x[t];
+                sumY[s] += y[t];
+                neighbors[s]++;
+            } else if (hasPosition[s] && !hasPosition[t]) {
+                sumX[t] += x[s];
+                sumY[t] += y[s];
+                neighbors[t]++;
+            }
+        }
+
+        final double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+        for (int i = 0; i < nodeCount; i++) {
+            if (hasPosition[i] || neighbors[i] == 0) continue;
+
+            double angle = i * goldenAngle;
+            x[i] = sumX[i] / neighbors[i] + (float) (idealDistance * Math.cos(angle));
+            y[i] = sumY[i] / neighbors[i] + (float) (idealDistance * Math.sin(angle));
+        }
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Critério de abertura do Barnes-Hut: valores maiores são mais rápidos e menos precisos.
+     * Zero desativa a aproximação.
+     */
+    public void setTheta(float theta) {
+        this.theta = Math.max(0f, theta);
+    }
+
+    public float getTheta() {
+        return theta;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    public boolean isConverged() {
+        return movableCount == 0 || temperature <= minTemperature || iteration >= maxIterations;
+    }
+
+    /**
+     * Executa uma iteração. Retorna true enquanto o layout ainda não convergiu.
+     */
+    public boolean step() {
+        if (isConverged() || nodeCount == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < nodeCount; i++) {
+            dx[i] = 0f;
+            dy[i] = 0f;
+        }
+
+        applyRepulsion();
+        applyAttraction();
+        applyGravity();
+        moveNodes();
+
+        temperature *= COOLING;
+        iteration++;
+        return !isConverged();
+    }
+
+    private void applyRepulsion() {
+        final float k2 = idealDistance * idealDistance;
+
+        if (theta > 0f) {
+            tree.build(x, y, nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                if (movable != null && !movable[i]) continue;
+                tree.accumulateRepulsion(i, k2, theta, MIN_DISTANCE, dx, dy);
+            }
+            return;
+        }
+
+        for (int i = 0; i < nodeCount; i++) {
+            float xi = x[i];
+            float yi = y[i];
+            for (int j = i + 1; j < nodeCount; j++) {
+                float ddx = xi - x[j];
+                float ddy = yi - y[j];
+                float distanceSq = ddx * ddx + ddy * ddy;
+                if (distanceSq < MIN_DISTANCE) {
+                    // Nós sobrepostos: separa em uma direção fixa derivada dos índices
+                    ddx = ((i - j) & 1) == 0 ? MIN_DISTANCE : -MIN_DISTANCE;
+                    ddy = MIN_DISTANCE;
+                    distanceSq = 2 * MIN_DISTANCE * MIN_DISTANCE;
+                }
+
+                // força k²/d na direção (ddx, ddy)/d  =>  k² * ddx / d²
+                float factor = k2 / distanceSq;
+                dx[i] += ddx * factor;
+                dy[i] += ddy * factor;
+                dx[j] -= ddx * factor;
+                dy[j] -= ddy * factor;
+            }
+        }
+    }
+
+    private void applyAttraction() {
+        for (int e = 0; e < edgeSource.length; e++) {
+            int s = edgeSource[e];
+            int t = edgeTarget[e];
+            if (s == t) continue;
+
+            float ddx = x[s] - x[t];
+            float ddy = y[s] - y[t];
+            float distance = (float) Math.sqrt(ddx * ddx + ddy * ddy);
+            if (distance < MIN_DISTANCE) continue;
+
+            // força d²/k na direção (ddx, ddy)/d  =>  ddx * d / k
+            float factor = distance / idealDistance;
+            dx[s] -= ddx * factor;
+            dy[s] -= ddy * factor;
+            dx[t] += ddx * factor;
+            dy[t] += ddy * factor;
+        }
+    }
+
+    private void applyGravity() {
+        for (int i = 0; i < nodeCount; i++) {
+            dx[i] -= x[i] * GRAVITY;
+            dy[i] -= y[i] * GRAVITY;
+        }
+    }
+
+    private void moveNodes() {
+        for (int i = 0; i < nodeCount; i++) {
+            if (movable != null && !movable[i]) continue;
+
+            float length = (float) Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+            if (length < MIN_DISTANCE) continue;
+
+            float limited = Math.min(length, temperature);
+            x[i] += dx[i] / length * limited;
+            y[i] += dy[i] / length * limited;
+        }
+    }
+
+    /**
+     * Copia as posições atuais para os arrays informados (tamanho mínimo nodeCount).
+     */
+    public void copyPositions(float[] outX, float[] outY) {
+        System.arraycopy(x, 0, outX, 0, nodeCount);
+        System.arraycopy(y, 0, outY, 0, nodeCount);
+    }
+}
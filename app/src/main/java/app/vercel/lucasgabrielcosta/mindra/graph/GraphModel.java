@@ -0,0 +1,92 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grafo de notas: cada conexão já resolvida no banco vira uma aresta para o nó com o id de
+ * destino, sem repetições nem laços, guardada em arrays primitivos de origem/destino.
+ * Conexões sem destino (null) ou para notas fora do grafo são ignoradas.
+ */
+public final class GraphModel {
+
+    private final int nodeCount;
+    private final Map<Integer, Integer> indexById;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+
+    private GraphModel(int nodeCount, Map<Integer, Integer> indexById, int[] edgeSource, int[] edgeTarget) {
+        this.nodeCount = nodeCount;
+        this.indexById = indexById;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+    }
+
+    /**
+     * @param ids     id da nota de cada nó, na ordem dos índices
+     * @param targets ids das notas citadas por cada nó (pode conter null)
+     */
+    public static GraphModel build(int[] ids, List<? extends List<Integer>> targets) {
+        int count = ids.length;
+
+        Map<Integer, Integer> indexById = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            indexById.put(ids[i], i);
+        }
+
+        int[] source = new int[16];
+        int[] target = new int[16];
+        int edges = 0;
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < count; i++) {
+            List<Integer> links = targets.get(i);
+            if (links == null) continue;
+
+            for (Integer link : links) {
+                Integer j = link != null ? indexById.get(link) : null;
+                if (j == null || j == i) continue;
+                if (!seen.add(((long) i << 32) | j)) continue;
+
+                if (edges == source.length) {
+                    source = Arrays.copyOf(source, edges * 2);
+                    target = Arrays.copyOf(target, edges * 2);
+                }
+                source[edges] = i;
+                target[edges] = j;
+                edges++;
+            }
+        }
+
+        return new GraphModel(count, indexById,
+                Arrays.copyOf(source, edges), Arrays.copyOf(target, edges));
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeSource.length;
+    }
+
+    public int[] getEdgeSource() {
+        return edgeSource;
+    }
+
+    public int[] getEdgeTarget() {
+        return edgeTarget;
+    }
+
+    /**
+     * @return índice do nó da nota informada, ou -1
+     */
+    public int indexOf(int noteId) {
+        Integer index = indexById.get(noteId);
+        return index != null ? index : -1;
+    }
+}
@@ -0,0 +1,144 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executa um {@link ForceLayout} em uma thread de fundo e publica quadros intermediários
+ * em no máximo uma taxa de quadros. A thread de interface consulta o quadro mais recente
+ * com {@link #copyLatest(float[], float[])}, sem nunca ler arrays que o layout está alterando.
+ */
+public class LayoutRunner {
+
+    private static final long FRAME_INTERVAL_NANOS = 16_000_000L;
+
+    public interface Listener {
+        /**
+         * Chamado na thread do layout quando há um novo quadro disponível.
+         */
+        void onFrameAvailable(boolean finished);
+    }
+
+    private final Object lock = new Object();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mindra-layout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<?> currentTask;
+    private int generation;
+
+    private float[] publishedX = new float[0];
+    private float[] publishedY = new float[0];
+    private int publishedCount;
+    private boolean hasNewFrame;
+
+    /**
+     * Cancela o layout em andamento, se houver, e inicia o novo.
+     */
+    public void start(final ForceLayout layout, final Listener listener) {
+        final int runGeneration;
+        synchronized (lock) {
+            runGeneration = ++generation;
+            // Um quadro do layout anterior ainda não consumido não vale para o novo grafo
+            hasNewFrame = false;
+            if (currentTask != null) {
+                currentTask.cancel(true);
+            }
+        }
+
+        Future<?> task = executor.submit(() -> run(layout, listener, runGeneration));
+        synchronized (lock) {
+            if (runGeneration == generation) {
+                currentTask = task;
+            }
+        }
+    }
+
+    private void run(ForceLayout layout, Listener listener, int runGeneration) {
+        int count = layout.getNodeCount();
+        float[] workX = new float[count];
+        float[] workY = new float[count];
+
+        publish(layout, workX, workY, runGeneration, listener, false);
+        long lastPublish = System.nanoTime();
+
+        while (layout.step()) {
+            if (Thread.currentThread().isInterrupted() || !isCurrent(runGeneration)) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            if (now - lastPublish >= FRAME_INTERVAL_NANOS) {
+                publish(layout, workX, workY, runGeneration, listener, false);
+                lastPublish = now;
+            }
+        }
+
+        publish(layout, workX, workY, runGeneration, listener, true);
+    }
+
+    private void publish(ForceLayout layout, float[] workX, float[] workY,
+                         int runGeneration, Listener listener, boolean finished) {
+        layout.copyPositions(workX, workY);
+
+        synchronized (lock) {
+            if (runGeneration != generation) return;
+
+            int count = workX.length;
+            if (publishedX.length < count) {
+                publishedX = new float[count];
+                publishedY = new float[count];
+            }
+            System.arraycopy(workX, 0, publishedX, 0, count);
+            System.arraycopy(workY, 0, publishedY, 0, count);
+            publishedCount = count;
+            hasNewFrame = true;
+        }
+
+        if (listener != null) {
+            listener.onFrameAvailable(finished);
+        }
+    }
+
+    private boolean isCurrent(int runGeneration) {
+        synchronized (lock) {
+            return runGeneration == generation;
+        }
+    }
+
+    /**
+     * Copia o quadro mais recente, se houver um ainda não consumido.
+     *
+     * @return a quantidade de nós copiada, ou -1 se não havia quadro novo
+     */
+    public int copyLatest(float[] outX, float[] outY) {
+        synchronized (lock) {
+            if (!hasNewFrame) return -1;
+
+            int count = Math.min(publishedCount, Math.min(outX.length, outY.length));
+            System.arraycopy(publishedX, 0, outX, 0, count);
+            System.arraycopy(publishedY, 0, outY, 0, count);
+            hasNewFrame = false;
+            return count;
+        }
+    }
+
+    public void cancel() {
+        synchronized (lock) {
+            generation++;
+            hasNewFrame = false;
+            if (currentTask != null) {
+                currentTask.cancel(true);
+                currentTask = null;
+            }
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
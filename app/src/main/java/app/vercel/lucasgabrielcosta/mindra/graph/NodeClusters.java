@@ -0,0 +1,93 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+/**
+ * Agrupa nós visíveis em células quadradas da área visível, para desenhar um único
+ * marcador por região densa quando o zoom está muito distante. Cada agrupamento fica
+ * no centroide dos seus nós. Os buffers são reaproveitados entre quadros.
+ */
+public class NodeClusters {
+
+    private int[] cellSize = new int[0];
+    private float[] cellSumX = new float[0];
+    private float[] cellSumY = new float[0];
+    private int[] occupiedCells = new int[0];
+
+    private float[] clusterX = new float[0];
+    private float[] clusterY = new float[0];
+    private int[] clusterSize = new int[0];
+    private int clusterCount;
+
+    /**
+     * @param nodes índices dos nós a agrupar (ex.: resultado de SpatialGrid.queryRect)
+     * @return quantidade de agrupamentos
+     */
+    public int build(float[] x, float[] y, int[] nodes, int nodeCount,
+                     float left, float top, float right, float bottom, float cell) {
+        int columns = Math.max(1, (int) Math.ceil((right - left) / cell));
+        int rows = Math.max(1, (int) Math.ceil((bottom - top) / cell));
+        int cells = columns * rows;
+
+        if (cellSize.length < cells) {
+            cellSize = new int[cells];
+            cellSumX = new float[cells];
+            cellSumY = new float[cells];
+        }
+        if (occupiedCells.length < nodeCount) {
+            occupiedCells = new int[nodeCount];
+            clusterX = new float[nodeCount];
+            clusterY = new float[nodeCount];
+            clusterSize = new int[nodeCount];
+        }
+
+        int occupied = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            int i = nodes[n];
+            // Nós da margem fora da área entram na célula da borda
+            int column = clamp((int) ((x[i] - left) / cell), columns);
+            int row = clamp((int) ((y[i] - top) / cell), rows);
+            int c = row * columns + column;
+
+            if (cellSize[c] == 0) {
+                occupiedCells[occupied++] = c;
+            }
+            cellSize[c]++;
+            cellSumX[c] += x[i];
+            cellSumY[c] += y[i];
+        }
+
+        for (int k = 0; k < occupied; k++) {
+            int c = occupiedCells[k];
+            clusterSize[k] = cellSize[c];
+            clusterX[k] = cellSumX[c] / cellSize[c];
+            clusterY[k] = cellSumY[c] / cellSize[c];
+
+            // Limpa só o que foi usado, para o próximo quadro
+            cellSize[c] = 0;
+            cellSumX[c] = 0f;
+            cellSumY[c] = 0f;
+        }
+
+        clusterCount = occupied;
+        return occupied;
+    }
+
+    private static int clamp(int value, int size) {
+        return value < 0 ? 0 : (value >= size ? size - 1 : value);
+    }
+
+    public int getClusterCount() {
+        return clusterCount;
+    }
+
+    public float[] getClusterX() {
+        return clusterX;
+    }
+
+    public float[] getClusterY() {
+        return clusterY;
+    }
+
+    public int[] getClusterSize() {
+        return clusterSize;
+    }
+}
@@ -0,0 +1,188 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import java.util.Arrays;
+
+/**
+ * Grade uniforme sobre as posições dos nós, em coordenadas do grafo. Cada célula lista os
+ * nós cujo centro cai nela (ordenação por contagem em arrays reaproveitados), o que torna
+ * o teste de toque e a busca pelos nós visíveis proporcionais apenas às células consultadas.
+ */
+public class SpatialGrid {
+
+    // Limita a grade a algumas células por nó quando os nós estão muito espalhados
+    private static final int MAX_CELLS_PER_NODE = 4;
+
+    private float originX;
+    private float originY;
+    private float cellSize = 1f;
+    private int columns;
+    private int rows;
+
+    private int[] cellStart = new int[1];
+    private int[] cellItems = new int[0];
+    private int[] cellOfNode = new int[0];
+
+    private float[] x;
+    private float[] y;
+    private int count;
+
+    /**
+     * Reindexa as posições. Os arrays são referenciados, não copiados: reconstrua sempre
+     * que as posições mudarem.
+     *
+     * @param preferredCellSize tamanho de célula desejado, tipicamente o diâmetro de um nó
+     */
+    public void build(float[] x, float[] y, int count, float preferredCellSize) {
+        this.x = x;
+        this.y = y;
+        this.count = count;
+
+        if (count == 0) {
+            columns = 0;
+            rows = 0;
+            return;
+        }
+
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        float width = maxX - minX + 1f;
+        float height = maxY - minY + 1f;
+        float size = Math.max(preferredCellSize, 1f);
+        long maxCells = (long) count * MAX_CELLS_PER_NODE;
+        if ((double) (width / size) * (height / size) > maxCells) {
+            size = (float) Math.sqrt((double) width * height / maxCells);
+        }
+
+        originX = minX;
+        originY = minY;
+        cellSize = size;
+        columns = (int) (width / size) + 1;
+        rows = (int) (height / size) + 1;
+
+        int cells = columns * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        if (cellItems.length < count) {
+            cellItems = new int[count];
+            cellOfNode = new int[count];
+        }
+
+        for (int i = 0; i < count; i++) {
+            int cell = cellIndex(column(x[i]), row(y[i]));
+            cellOfNode[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        // cellStart[cell] serve de cursor durante o preenchimento e é restaurado em seguida
+        for (int i = 0; i < count; i++) {
+            int cell = cellOfNode[i];
+            cellItems[cellStart[cell]++] = i;
+        }
+        for (int cell = cells; cell > 0; cell--) {
+            cellStart[cell] = cellStart[cell - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    private int column(float px) {
+        int column = (int) ((px - originX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    private int row(float py) {
+        int row = (int) ((py - originY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private int cellIndex(int column, int row) {
+        return row * columns + column;
+    }
+
+    /**
+     * Nó mais próximo de (px, py) a no máximo radius de distância, ou -1.
+     */
+    public int nearest(float px, float py, float radius) {
+        if (count == 0) return -1;
+
+        int firstColumn = column(px - radius);
+        int lastColumn = column(px + radius);
+        int firstRow = row(py - radius);
+        int lastRow = row(py + radius);
+
+        int best = -1;
+        float bestDistanceSq = radius * radius;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = cellIndex(c, r);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    float dx = x[i] - px;
+                    float dy = y[i] - py;
+                    float distanceSq = dx * dx + dy * dy;
+                    if (distanceSq <= bestDistanceSq) {
+                        bestDistanceSq = distanceSq;
+                        best = i;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Escreve em out os nós cujo centro está no retângulo ampliado por margin.
+     *
+     * @param out array com pelo menos a quantidade de nós indexados
+     * @return quantos nós foram escritos
+     */
+    public int queryRect(float left, float top, float right, float bottom, float margin, int[] out) {
+        if (count == 0) return 0;
+
+        float minX = left - margin;
+        float maxX = right + margin;
+        float minY = top - margin;
+        float maxY = bottom + margin;
+        if (maxX < originX || maxY < originY
+                || minX > originX + columns * cellSize || minY > originY + rows * cellSize) {
+            return 0;
+        }
+
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+
+        int found = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = cellIndex(c, r);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    float px = x[i];
+                    float py = y[i];
+                    if (px >= minX && px <= maxX && py >= minY && py <= maxY) {
+                        out[found++] = i;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,350 @@
+package app.vercel.lucasgabrielcosta.mindra.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import app.vercel.lucasgabrielcosta.mindra.model.Note;
+
+/**
+ * Importa um cofre de arquivos Markdown (pasta ou .zip) em lotes, sem carregar o cofre
+ * inteiro na memória. Se algo falhar, a importação para e os lotes já gravados ficam.
+ * <p>
+ * A thread que chama lê os arquivos um a um; um grupo de threads monta as notas (título,
+ * categoria e [[links]]); uma thread de escrita grava lotes de BATCH_SIZE notas, cada lote
+ * em uma transação. No máximo 2 lotes ficam em memória: a leitura espera a escrita.
+ * <p>
+ * Título é o nome do arquivo sem extensão, como no Obsidian, para que os [[links]] do
+ * cofre continuem apontando para as notas certas. Categoria é a pasta do arquivo.
+ */
+public class VaultImporter {
+
+    /**
+     * Destino das notas importadas. insertBatch recebe lotes de notas em qualquer ordem; finish é
+     * chamado uma vez, depois do último lote, mesmo se a importação falhar no meio: os lotes
+     * já gravados ficam e precisam das suas conexões resolvidas.
+     */
+    public interface NoteSink {
+        void insertBatch(List<Note> notes);
+
+        void finish();
+    }
+
+    public interface ProgressListener {
+        /**
+         * Chamado da thread de escrita após cada lote gravado.
+         */
+        void onProgress(int importedCount);
+    }
+
+    public static final class Result {
+        private final int importedCount;
+        private final int skippedCount;
+
+        Result(int importedCount, int skippedCount) {
+            this.importedCount = importedCount;
+            this.skippedCount = skippedCount;
+        }
+
+        public int getImportedCount() {
+            return importedCount;
+        }
+
+        /**
+         * Arquivos Markdown ignorados por serem grandes demais.
+         */
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+    }
+
+    static final int BATCH_SIZE = 1_000;
+    static final long MAX_FILE_BYTES = 4L * 1024 * 1024;
+    private static final int MAX_PARSER_THREADS = 4;
+
+    // Marca o fim da fila de notas para a thread de escrita
+    private static final Note END_OF_VAULT = new Note();
+
+    private final NoteSink sink;
+    private final String defaultCategory;
+    private ProgressListener progressListener;
+
+    /**
+     * @param defaultCategory categoria das notas que estão na raiz do cofre
+     */
+    public VaultImporter(NoteSink sink, String defaultCategory) {
+        this.sink = sink;
+        this.defaultCategory = defaultCategory;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Percorre a pasta sem recursão; pastas e arquivos ocultos (.obsidian, .trash) ficam de
+     * fora. java.nio.file só existe a partir da API 26, então a caminhada usa java.io.File.
+     */
+    public Result importDirectory(File root) throws IOException {
+        return run(handler -> {
+            ArrayDeque<File> pending = new ArrayDeque<>();
+            pending.push(root);
+
+            while (!pending.isEmpty()) {
+                File directory = pending.pop();
+                File[] children = directory.listFiles();
+                if (children == null) continue;
+
+                for (File child : children) {
+                    String name = child.getName();
+                    if (name.startsWith(".")) continue;
+
+                    if (child.isDirectory()) {
+                        pending.push(child);
+                    } else if (isMarkdown(name)) {
+                        String category = directory.equals(root) ? null : directory.getName();
+                        if (child.length() > MAX_FILE_BYTES) {
+                            handler.onSkipped();
+                            continue;
+                        }
+                        String text;
+                        try (InputStream in = new FileInputStream(child)) {
+                            text = readText(in);
+                        }
+                        if (text == null) {
+                            handler.onSkipped();
+                        } else {
+                            handler.onFile(name, category, child.lastModified(), text);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Lê o .zip em sequência, entrada por entrada, direto do stream (ex.: um content://).
+     * O stream não é fechado aqui.
+     */
+    public Result importZip(InputStream zipStream) throws IOException {
+        return run(handler -> {
+            ZipInputStream zip = new ZipInputStream(zipStream);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+
+                String path = entry.getName().replace('\\', '/');
+                if (isHiddenPath(path)) continue;
+
+                int nameStart = path.lastIndexOf('/') + 1;
+                String name = path.substring(nameStart);
+                if (!isMarkdown(name)) continue;
+                if (entry.getSize() > MAX_FILE_BYTES) {
+                    handler.onSkipped();
+                    continue;
+                }
+
+                String category = null;
+                if (nameStart > 0) {
+                    String folder = path.substring(0, nameStart - 1);
+                    category = folder.substring(folder.lastIndexOf('/') + 1);
+                }
+                String text = readText(zip);
+                if (text == null) {
+                    handler.onSkipped();
+                    continue;
+                }
+                handler.onFile(name, category, entry.getTime(), text);
+            }
+        });
+    }
+
+    private interface VaultSource {
+        void read(FileHandler handler) throws IOException, InterruptedException;
+    }
+
+    private interface FileHandler {
+        void onFile(String fileName, String category, long modified, String text)
+                throws IOException, InterruptedException;
+
+        void onSkipped();
+    }
+
+    private Result run(VaultSource source) throws IOException {
+        final Semaphore inFlight = new Semaphore(BATCH_SIZE * 2);
+        final BlockingQueue<Note> parsed = new LinkedBlockingQueue<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicInteger imported = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+
+        int threads = Math.max(1, Math.min(MAX_PARSER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mindra-import-parser");
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+
+        Thread writer = new Thread(() -> {
+            try {
+                List<Note> batch = new ArrayList<>(BATCH_SIZE);
+                while (true) {
+                    Note note = parsed.take();
+                    if (note != END_OF_VAULT) {
+                        batch.add(note);
+                    }
+                    if (batch.size() == BATCH_SIZE || (note == END_OF_VAULT && !batch.isEmpty())) {
+                        sink.insertBatch(batch);
+                        inFlight.release(batch.size());
+                        int count = imported.addAndGet(batch.size());
+                        batch = new ArrayList<>(BATCH_SIZE);
+                        if (progressListener != null) {
+                            progressListener.onProgress(count);
+                        }
+                    }
+                    if (note == END_OF_VAULT) break;
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                // Libera a leitura, que pode estar esperando espaço para o próximo arquivo
+                inFlight.release(BATCH_SIZE * 2);
+            }
+        }, "mindra-import-writer");
+        writer.start();
+
+        try {
+            source.read(new FileHandler() {
+                @Override
+                public void onFile(String fileName, String category, long modified, String text)
+                        throws IOException, InterruptedException {
+                    inFlight.acquire();
+                    throwIfFailed(failure.get());
+                    parsers.execute(() -> {
+                        try {
+                            parsed.add(createNote(fileName, category != null ? category : defaultCategory,
+                                    modified, text));
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                            inFlight.release();
+                        }
+                    });
+                }
+
+                @Override
+                public void onSkipped() {
+                    skipped.incrementAndGet();
+                }
+            });
+
+            parsers.shutdown();
+            parsers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            parsed.add(END_OF_VAULT);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("importação interrompida");
+        } finally {
+            // Só tem efeito se a importação parou no meio
+            parsers.shutdownNow();
+            writer.interrupt();
+            // Um lote pode estar no meio da transação: finish só depois que a escrita terminar
+            joinUninterruptibly(writer);
+            try {
+                sink.finish();
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        throwIfFailed(failure.get());
+        return new Result(imported.get(), skipped.get());
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void throwIfFailed(Throwable error) throws IOException {
+        if (error == null) return;
+        if (error instanceof RuntimeException) throw (RuntimeException) error;
+        if (error instanceof Error) throw (Error) error;
+        if (error instanceof IOException) throw (IOException) error;
+        throw new IOException(error);
+    }
+
+    /**
+     * Monta a nota de um arquivo. As conexões saem de Note.setContent, pelo WikiLinkParser,
+     * que já reduz os links do Obsidian ao título, como em qualquer edição feita no app.
+     */
+    static Note createNote(String fileName, String category, long modified, String text) {
+        Note note = new Note();
+        note.setTitle(stripExtension(fileName));
+        note.setCategory(category);
+        note.setContent(text);
+        if (modified > 0) {
+            note.setCreationDate(new Date(modified));
+        }
+        return note;
+    }
+
+    private static String stripExtension(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".markdown")) return fileName.substring(0, fileName.length() - 9);
+        if (lower.endsWith(".md")) return fileName.substring(0, fileName.length() - 3);
+        return fileName;
+    }
+
+    private static boolean isMarkdown(String fileName) {
+        String lower = fileName.toLowerCase();
+        return (lower.endsWith(".md") || lower.endsWith(".markdown")) && lower.indexOf('.') > 0;
+    }
+
+    private static boolean isHiddenPath(String path) {
+        return path.startsWith(".") || path.contains("/.") || path.startsWith("__MACOSX/");
+    }
+
+    // Lê até o fim da entrada atual; devolve null se passar do limite de tamanho
+    private static String readText(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        byte[] buffer = new byte[8 * 1024];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > MAX_FILE_BYTES) return null;
+            out.write(buffer, 0, read);
+        }
+
+        String text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        // BOM de editores do Windows
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+}
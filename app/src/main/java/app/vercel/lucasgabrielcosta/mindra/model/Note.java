@@ -2,20 +2,23 @@ package app.vercel.lucasgabrielcosta.mindra.model;
 
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import app.vercel.lucasgabrielcosta.mindra.database.Converters;
-
-@Entity(tableName = "notes")
+import app.vercel.lucasgabrielcosta.mindra.util.WikiLinkParser;
+
+// id é o rowid: os índices por creationDate já ordenam por (creationDate, id) sem ordenação extra
+@Entity(tableName = "notes", indices = {
+        @Index("title"),
+        @Index("creationDate"),
+        @Index({"category", "creationDate"})
+})
 @TypeConverters(Converters.class)
 public class Note {
 
@@ -26,6 +29,8 @@ public class Note {
     private String content;
     private String category;
     private Date creationDate;
+    // Derivadas do conteúdo; persistidas na tabela note_links
+    @Ignore
     private List<String> connections;
 
     public Note() {
@@ -44,20 +49,7 @@ public class Note {
     }
 
     private List<String> extractConnections(String content) {
-        Set<String> uniqueConnections = new HashSet<>();
-
-        if (content == null || content.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        Pattern pattern = Pattern.compile("\\[\\[(.*?)\\]\\]");
-        Matcher matcher = pattern.matcher(content);
-
-        while (matcher.find()) {
-            uniqueConnections.add(matcher.group(1));
-        }
-
-        return new ArrayList<>(uniqueConnections);
+        return WikiLinkParser.extractTargets(content);
     }
 
     public int getId() {
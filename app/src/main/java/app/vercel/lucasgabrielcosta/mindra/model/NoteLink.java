@@ -0,0 +1,69 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.Index;
+
+/**
+ * Uma conexão [[target_title]] escrita na nota source_id. target_id aponta para a
+ * nota com esse título, ou fica nulo enquanto ela não existir.
+ */
+@Entity(tableName = "note_links",
+        primaryKeys = {"source_id", "target_title"},
+        foreignKeys = {
+                @ForeignKey(entity = Note.class, parentColumns = "id", childColumns = "source_id",
+                        onDelete = ForeignKey.CASCADE),
+                @ForeignKey(entity = Note.class, parentColumns = "id", childColumns = "target_id",
+                        onDelete = ForeignKey.SET_NULL)
+        },
+        indices = {@Index("target_title"), @Index("target_id")})
+public class NoteLink {
+
+    @ColumnInfo(name = "source_id")
+    private int sourceId;
+
+    @NonNull
+    @ColumnInfo(name = "target_title")
+    private String targetTitle = "";
+
+    @ColumnInfo(name = "target_id")
+    private Integer targetId;
+
+    public NoteLink() {
+    }
+
+    @Ignore
+    public NoteLink(int sourceId, @NonNull String targetTitle, Integer targetId) {
+        this.sourceId = sourceId;
+        this.targetTitle = targetTitle;
+        this.targetId = targetId;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(int sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    @NonNull
+    public String getTargetTitle() {
+        return targetTitle;
+    }
+
+    public void setTargetTitle(@NonNull String targetTitle) {
+        this.targetTitle = targetTitle;
+    }
+
+    public Integer getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Integer targetId) {
+        this.targetId = targetId;
+    }
+}
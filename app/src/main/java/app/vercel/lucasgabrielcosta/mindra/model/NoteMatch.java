@@ -0,0 +1,43 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.room.Ignore;
+
+/**
+ * Nota encontrada no índice notes_fts, só com o necessário para ordenar por relevância.
+ * Título, trecho e contagem de conexões são carregados depois, apenas para as mais relevantes.
+ */
+public class NoteMatch {
+
+    private int id;
+    private byte[] matchInfo;
+
+    @Ignore
+    private float score = Float.NaN;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+        this.score = Float.NaN;
+    }
+
+    /**
+     * Mesma relevância de NoteSearchResult.getScore().
+     */
+    public float getScore() {
+        if (Float.isNaN(score)) {
+            score = NoteSearchResult.computeScore(matchInfo);
+        }
+        return score;
+    }
+}
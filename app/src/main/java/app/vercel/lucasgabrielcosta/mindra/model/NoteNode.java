@@ -0,0 +1,60 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.room.Relation;
+
+import java.util.List;
+
+/**
+ * Projeção de uma nota para o grafo: apenas o necessário para desenhar o nó e suas conexões.
+ * As conexões vêm já resolvidas pelo banco (note_links.target_id); null é um link para um
+ * título que não existe.
+ */
+public class NoteNode {
+
+    private int id;
+    private String title;
+
+    @Relation(parentColumn = "id", entityColumn = "source_id", entity = NoteLink.class,
+            projection = {"target_id"})
+    private List<Integer> targetIds;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<Integer> getTargetIds() {
+        return targetIds;
+    }
+
+    public void setTargetIds(List<Integer> targetIds) {
+        this.targetIds = targetIds;
+    }
+
+    /**
+     * Resumo do título e das conexões, independente da ordem em que os links vêm do banco.
+     * Serve para saber se uma posição salva no grafo ainda corresponde a esta nota.
+     */
+    public int getLinkHash() {
+        int hash = title != null ? title.hashCode() : 0;
+        if (targetIds != null) {
+            int links = 0;
+            for (Integer targetId : targetIds) {
+                if (targetId != null) links += targetId.hashCode();
+            }
+            hash = 31 * hash + links;
+        }
+        return hash;
+    }
+}
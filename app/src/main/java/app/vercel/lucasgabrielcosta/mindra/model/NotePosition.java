@@ -0,0 +1,70 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Posição calculada de uma nota no grafo. link_hash identifica o título e as conexões
+ * da nota no momento do cálculo: se não bater mais, a posição serve só como ponto de partida.
+ */
+@Entity(tableName = "note_positions",
+        foreignKeys = @ForeignKey(entity = Note.class, parentColumns = "id", childColumns = "note_id",
+                onDelete = ForeignKey.CASCADE))
+public class NotePosition {
+
+    @PrimaryKey
+    @ColumnInfo(name = "note_id")
+    private int noteId;
+
+    private float x;
+    private float y;
+
+    @ColumnInfo(name = "link_hash")
+    private int linkHash;
+
+    public NotePosition() {
+    }
+
+    @Ignore
+    public NotePosition(int noteId, float x, float y, int linkHash) {
+        this.noteId = noteId;
+        this.x = x;
+        this.y = y;
+        this.linkHash = linkHash;
+    }
+
+    public int getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(int noteId) {
+        this.noteId = noteId;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public void setX(float x) {
+        this.x = x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public void setY(float y) {
+        this.y = y;
+    }
+
+    public int getLinkHash() {
+        return linkHash;
+    }
+
+    public void setLinkHash(int linkHash) {
+        this.linkHash = linkHash;
+    }
+}
@@ -0,0 +1,144 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.room.Ignore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Resultado de uma busca de texto completo: a projeção da listagem mais o
+ * trecho encontrado (snippet) e o matchinfo usado para ordenar por relevância.
+ */
+public class NoteSearchResult extends NoteSummary {
+
+    // Marcadores usados no snippet() para delimitar os termos encontrados
+    public static final char HIGHLIGHT_START = '\u0002';
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    // Pesos por coluna, na ordem de NoteFts: title, content, category
+    private static final float[] COLUMN_WEIGHTS = {4f, 1f, 2f};
+
+    private String snippet;
+    private byte[] matchInfo;
+
+    @Ignore
+    private String snippetText;
+    @Ignore
+    private int[] highlightRanges;
+    @Ignore
+    private float score = Float.NaN;
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+        this.snippetText = null;
+        this.highlightRanges = null;
+    }
+
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+        this.score = Float.NaN;
+    }
+
+    /**
+     * Snippet sem os marcadores de destaque.
+     */
+    public String getSnippetText() {
+        if (snippetText == null) {
+            parseSnippet();
+        }
+        return snippetText;
+    }
+
+    /**
+     * Pares [início, fim) dos termos destacados dentro de getSnippetText().
+     */
+    public int[] getHighlightRanges() {
+        if (highlightRanges == null) {
+            parseSnippet();
+        }
+        return highlightRanges;
+    }
+
+    /**
+     * Relevância calculada a partir de matchinfo(notes_fts, 'pcx'): para cada frase
+     * e coluna, ocorrências na nota divididas pelas ocorrências em todas as notas.
+     */
+    public float getScore() {
+        if (Float.isNaN(score)) {
+            score = computeScore(matchInfo);
+        }
+        return score;
+    }
+
+    static float computeScore(byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return 0f;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+
+        float total = 0f;
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int base = 8 + 12 * (phrase * columnCount + column);
+                if (base + 8 > matchInfo.length) {
+                    return total;
+                }
+
+                int hitsThisRow = buffer.getInt(base);
+                int hitsAllRows = buffer.getInt(base + 4);
+                if (hitsThisRow > 0 && hitsAllRows > 0) {
+                    float weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1f;
+                    total += weight * hitsThisRow / hitsAllRows;
+                }
+            }
+        }
+        return total;
+    }
+
+    private void parseSnippet() {
+        if (snippet == null) {
+            snippetText = "";
+            highlightRanges = new int[0];
+            return;
+        }
+
+        StringBuilder text = new StringBuilder(snippet.length());
+        int[] ranges = new int[8];
+        int rangeCount = 0;
+
+        for (int i = 0; i < snippet.length(); i++) {
+            char c = snippet.charAt(i);
+            if (c == HIGHLIGHT_START || c == HIGHLIGHT_END) {
+                if (rangeCount == ranges.length) {
+                    int[] grown = new int[ranges.length * 2];
+                    System.arraycopy(ranges, 0, grown, 0, rangeCount);
+                    ranges = grown;
+                }
+                ranges[rangeCount++] = text.length();
+            } else {
+                text.append(c);
+            }
+        }
+
+        // Marcador de abertura sem fechamento: destaca até o fim
+        if (rangeCount % 2 == 1) {
+            ranges[rangeCount++] = text.length();
+        }
+
+        int[] trimmed = new int[rangeCount];
+        System.arraycopy(ranges, 0, trimmed, 0, rangeCount);
+        snippetText = text.toString();
+        highlightRanges = trimmed;
+    }
+}
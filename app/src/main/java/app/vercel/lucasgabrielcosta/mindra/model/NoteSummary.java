@@ -0,0 +1,113 @@
+package app.vercel.lucasgabrielcosta.mindra.model;
+
+import androidx.room.Ignore;
+import androidx.room.TypeConverters;
+
+import java.util.Date;
+
+import app.vercel.lucasgabrielcosta.mindra.database.Converters;
+
+/**
+ * Projeção de uma nota para a listagem: traz apenas uma prévia do conteúdo,
+ * recortada no próprio SQLite.
+ */
+@TypeConverters(Converters.class)
+public class NoteSummary {
+
+    public static final int PREVIEW_LENGTH = 100;
+
+    private int id;
+    private String title;
+    private String category;
+    private Date creationDate;
+    // substr(content, 1, PREVIEW_LENGTH + 1): o caractere extra indica que o conteúdo continua
+    private String preview;
+    private int connectionCount;
+
+    // Textos prontos para exibição, preenchidos por NoteDisplayFormatter ao carregar a página
+    @Ignore
+    private String displayDate;
+    @Ignore
+    private CharSequence displayContent;
+    @Ignore
+    private String connectionLabel;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Date getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(Date creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public void setConnectionCount(int connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    public String getDisplayDate() {
+        return displayDate;
+    }
+
+    public void setDisplayDate(String displayDate) {
+        this.displayDate = displayDate;
+    }
+
+    public CharSequence getDisplayContent() {
+        return displayContent;
+    }
+
+    public void setDisplayContent(CharSequence displayContent) {
+        this.displayContent = displayContent;
+    }
+
+    public String getConnectionLabel() {
+        return connectionLabel;
+    }
+
+    public void setConnectionLabel(String connectionLabel) {
+        this.connectionLabel = connectionLabel;
+    }
+
+    public String getContentPreview() {
+        if (preview == null || preview.length() <= PREVIEW_LENGTH) {
+            return preview;
+        }
+        return preview.substring(0, PREVIEW_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,401 @@
+package app.vercel.lucasgabrielcosta.mindra.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.vercel.lucasgabrielcosta.mindra.database.NoteDao;
+import app.vercel.lucasgabrielcosta.mindra.database.NoteDatabase;
+import app.vercel.lucasgabrielcosta.mindra.importer.VaultImporter;
+import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteNode;
+import app.vercel.lucasgabrielcosta.mindra.model.NotePosition;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSearchResult;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
+import app.vercel.lucasgabrielcosta.mindra.util.NoteDisplayFormatter;
+
+/**
+ * Ponto único de acesso às notas. Toda operação no NoteDao roda em um executor
+ * de I/O com número fixo de threads e o resultado volta na thread principal.
+ */
+public class NoteRepository {
+    private static final String TAG = "NoteRepository";
+
+    private static final int IO_THREADS = 2;
+    private static final long IO_KEEP_ALIVE_SECONDS = 30;
+    private static final int SEARCH_RESULTS = 200;
+    // A listagem mostra a contagem de conexões, então links também contam como mudança
+    private static final String[] NOTE_TABLES = {"notes", "note_links"};
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    /**
+     * Chamado na thread principal, no lugar do Callback, quando a operação falha.
+     */
+    public interface ErrorCallback {
+        void onError(Exception error);
+    }
+
+    private static volatile NoteRepository INSTANCE;
+
+    private final NoteDao noteDao;
+    private final NoteDisplayFormatter displayFormatter;
+    private final ExecutorService ioExecutor;
+    // Importar um cofre leva minutos: com thread própria, não ocupa uma das threads de I/O
+    private final ExecutorService importExecutor;
+    // Uma thread só: removeObserver nunca passa à frente do addObserver da mesma assinatura
+    private final ExecutorService observerExecutor;
+    private final Handler mainHandler;
+    private final InvalidationTracker invalidationTracker;
+
+    private NoteRepository(Context context) {
+        NoteDatabase database = NoteDatabase.getDatabase(context);
+        noteDao = database.noteDao();
+        invalidationTracker = database.getInvalidationTracker();
+        displayFormatter = new NoteDisplayFormatter(context);
+        mainHandler = new Handler(Looper.getMainLooper());
+
+        ioExecutor = newExecutor(IO_THREADS, "mindra-io-");
+        importExecutor = newExecutor(1, "mindra-import-");
+        observerExecutor = newExecutor(1, "mindra-observer-");
+    }
+
+    private static ExecutorService newExecutor(int threads, String namePrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                IO_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new IoThreadFactory(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public static NoteRepository getInstance(final Context context) {
+        if (INSTANCE == null) {
+            synchronized (NoteRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new NoteRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Avisa na thread principal sempre que notas ou conexões mudarem, seja qual for a tela
+     * que fez a escrita. Sem mudanças, nada é consultado.
+     */
+    public Subscription observeNotes(Runnable onChanged) {
+        return observe(onChanged, NOTE_TABLES);
+    }
+
+    /**
+     * Entrega as notas da categoria agora e de novo a cada mudança na tabela de notas.
+     */
+    public Subscription observeCategory(String category, Callback<List<Note>> callback) {
+        getNotesByCategory(category, callback);
+        return observe(() -> getNotesByCategory(category, callback), "notes");
+    }
+
+    /**
+     * Entrega o grafo agora e de novo a cada mudança em notas ou conexões.
+     */
+    public Subscription observeGraph(Callback<List<NoteNode>> callback) {
+        getGraphNodes(callback);
+        return observe(() -> getGraphNodes(callback), NOTE_TABLES);
+    }
+
+    private Subscription observe(Runnable onChanged, String... tables) {
+        final Subscription subscription = new Subscription();
+        subscription.observer = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> changedTables) {
+                mainHandler.post(() -> {
+                    if (subscription.active) onChanged.run();
+                });
+            }
+        };
+        // Registrar sincroniza os gatilhos do tracker no banco: fica fora da thread principal
+        observerExecutor.execute(() -> invalidationTracker.addObserver(subscription.observer));
+        return subscription;
+    }
+
+    /**
+     * Assinatura de um observe*; cancel() deve ser chamado quando a tela for destruída.
+     */
+    public final class Subscription {
+        private InvalidationTracker.Observer observer;
+        private volatile boolean active = true;
+
+        private Subscription() {
+        }
+
+        public void cancel() {
+            if (!active) return;
+            active = false;
+            observerExecutor.execute(() -> invalidationTracker.removeObserver(observer));
+        }
+    }
+
+    public void getAllNotes(Callback<List<Note>> callback) {
+        execute(noteDao::getAllNotes, callback);
+    }
+
+    /**
+     * Carrega a página seguinte à nota informada (ou a primeira, se for null),
+     * na mesma ordem de getAllNotes(). Os textos de exibição já vêm preenchidos.
+     */
+    public void getNotesPage(NoteSummary after, int pageSize, Callback<List<NoteSummary>> callback) {
+        if (after == null) {
+            execute(() -> displayFormatter.prepare(noteDao.getFirstPage(pageSize)), callback);
+            return;
+        }
+
+        long beforeDate = after.getCreationDate() != null ? after.getCreationDate().getTime() : 0L;
+        int beforeId = after.getId();
+        execute(() -> displayFormatter.prepare(noteDao.getPageBefore(beforeDate, beforeId, pageSize)), callback);
+    }
+
+    /**
+     * Busca de texto completo. As notas vêm do índice FTS (sem varredura da tabela),
+     * já ordenadas por relevância; só as SEARCH_RESULTS primeiras são carregadas.
+     */
+    public void search(String text, Callback<List<NoteSearchResult>> callback) {
+        final String matchQuery = buildMatchQuery(text);
+        if (matchQuery == null) {
+            mainHandler.post(() -> callback.onResult(new ArrayList<>()));
+            return;
+        }
+
+        execute(() -> displayFormatter.prepare(noteDao.search(matchQuery, SEARCH_RESULTS)), callback);
+    }
+
+    /**
+     * Converte o texto digitado em uma consulta MATCH: cada palavra vira um termo
+     * entre aspas com busca por prefixo, e todos precisam ocorrer.
+     */
+    static String buildMatchQuery(String text) {
+        if (text == null) return null;
+
+        StringBuilder query = new StringBuilder();
+        for (String token : text.trim().split("\\s+")) {
+            String term = token.replace("\"", "");
+            if (term.isEmpty()) continue;
+
+            if (query.length() > 0) query.append(' ');
+            query.append('"').append(term).append("*\"");
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    public void getGraphNodes(Callback<List<NoteNode>> callback) {
+        execute(noteDao::getAllNodes, callback);
+    }
+
+    public void getGraphPositions(Callback<List<NotePosition>> callback) {
+        execute(noteDao::getAllPositions, callback);
+    }
+
+    // note_positions não é observada: salvar posições não dispara observeGraph()
+    public void savePositions(List<NotePosition> positions) {
+        if (positions.isEmpty()) return;
+        execute(() -> {
+            noteDao.upsertPositions(positions);
+            return null;
+        }, null);
+    }
+
+    public void getBacklinks(int noteId, Callback<List<NoteSummary>> callback) {
+        execute(() -> noteDao.getBacklinks(noteId), callback);
+    }
+
+    public void countBacklinks(int noteId, Callback<Integer> callback) {
+        execute(() -> noteDao.countBacklinks(noteId), callback);
+    }
+
+    public void getNoteById(int id, Callback<Note> callback) {
+        getNoteById(id, callback, null);
+    }
+
+    public void getNoteById(int id, Callback<Note> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> noteDao.getNoteById(id), callback, onError);
+    }
+
+    public void getNotesByCategory(String category, Callback<List<Note>> callback) {
+        execute(() -> noteDao.getNotesByCategory(category), callback);
+    }
+
+    public void insert(Note note, Callback<Long> callback) {
+        insert(note, callback, null);
+    }
+
+    public void insert(Note note, Callback<Long> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> noteDao.insert(note), callback, onError);
+    }
+
+    public void update(Note note, Callback<Void> callback) {
+        update(note, callback, null);
+    }
+
+    public void update(Note note, Callback<Void> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> {
+            noteDao.update(note);
+            return null;
+        }, callback, onError);
+    }
+
+    // Lote inteiro em uma transação: os observadores recebem um único aviso
+    public void insertAll(List<Note> notes, Callback<List<Long>> callback) {
+        insertAll(notes, callback, null);
+    }
+
+    public void insertAll(List<Note> notes, Callback<List<Long>> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> noteDao.insertAll(notes), callback, onError);
+    }
+
+    public void updateAll(List<Note> notes, Callback<Void> callback) {
+        updateAll(notes, callback, null);
+    }
+
+    public void updateAll(List<Note> notes, Callback<Void> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> {
+            noteDao.updateAll(notes);
+            return null;
+        }, callback, onError);
+    }
+
+    public void deleteAllById(List<Integer> ids, Callback<Void> callback) {
+        deleteAllById(ids, callback, null);
+    }
+
+    public void deleteAllById(List<Integer> ids, Callback<Void> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> {
+            noteDao.deleteAllById(ids);
+            return null;
+        }, callback, onError);
+    }
+
+    /**
+     * Importa um cofre Markdown em .zip e fecha o stream ao final. O progresso chega na thread
+     * principal após cada lote; o resultado é null se a importação falhar, seja na leitura do
+     * arquivo ou na gravação.
+     */
+    public void importVaultZip(InputStream zip, String defaultCategory,
+                               VaultImporter.ProgressListener progressListener,
+                               Callback<VaultImporter.Result> callback) {
+        execute(importExecutor, () -> {
+            try (InputStream in = zip) {
+                return newVaultImporter(defaultCategory, progressListener).importZip(in);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Falha ao importar o cofre", e);
+                return null;
+            }
+        }, callback);
+    }
+
+    private VaultImporter newVaultImporter(String defaultCategory, VaultImporter.ProgressListener progressListener) {
+        // Conexões entre lotes diferentes só são resolvidas uma vez, ao final
+        VaultImporter importer = new VaultImporter(new VaultImporter.NoteSink() {
+            @Override
+            public void insertBatch(List<Note> notes) {
+                noteDao.insertWithUnresolvedLinks(notes);
+            }
+
+            @Override
+            public void finish() {
+                noteDao.resolveOrphanLinks();
+            }
+        }, defaultCategory);
+
+        if (progressListener != null) {
+            importer.setProgressListener(count -> mainHandler.post(() -> progressListener.onProgress(count)));
+        }
+        return importer;
+    }
+
+    public void delete(Note note, Callback<Void> callback) {
+        delete(note, callback, null);
+    }
+
+    public void delete(Note note, Callback<Void> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> {
+            noteDao.delete(note);
+            return null;
+        }, callback, onError);
+    }
+
+    public void deleteById(int id, Callback<Void> callback) {
+        deleteById(id, callback, null);
+    }
+
+    public void deleteById(int id, Callback<Void> callback, ErrorCallback onError) {
+        execute(ioExecutor, () -> {
+            noteDao.deleteById(id);
+            return null;
+        }, callback, onError);
+    }
+
+    private <T> void execute(Callable<T> task, Callback<T> callback) {
+        execute(ioExecutor, task, callback, null);
+    }
+
+    private <T> void execute(Executor executor, Callable<T> task, Callback<T> callback) {
+        execute(executor, task, callback, null);
+    }
+
+    // Em caso de falha só onError é chamado; sem onError, a falha fica apenas no log
+    private <T> void execute(Executor executor, Callable<T> task, Callback<T> callback, ErrorCallback onError) {
+        executor.execute(() -> {
+            final T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                Log.e(TAG, "Falha ao acessar o banco de notas", e);
+                if (onError != null) {
+                    mainHandler.post(() -> onError.onError(e));
+                }
+                return;
+            }
+
+            if (callback != null) {
+                mainHandler.post(() -> callback.onResult(result));
+            }
+        });
+    }
+
+    private static class IoThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        IoThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package app.vercel.lucasgabrielcosta.mindra.util;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Typeface;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+
+import androidx.core.content.ContextCompat;
+
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+
+import app.vercel.lucasgabrielcosta.mindra.R;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSearchResult;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteSummary;
+
+/**
+ * Monta os textos exibidos na lista (data, prévia ou trecho destacado e rótulo de conexões)
+ * uma única vez, na thread de I/O que carregou a página. O adapter só atribui os campos.
+ */
+public class NoteDisplayFormatter {
+
+    private static final String DATE_PATTERN = "dd/MM/yyyy";
+
+    private final Resources resources;
+    private final int highlightColor;
+
+    // SimpleDateFormat não é thread-safe e o repositório usa mais de uma thread de I/O
+    private final ThreadLocal<SimpleDateFormat> dateFormat = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat(DATE_PATTERN, Locale.getDefault());
+        }
+    };
+
+    public NoteDisplayFormatter(Context context) {
+        this.resources = context.getResources();
+        this.highlightColor = ContextCompat.getColor(context, R.color.primary_light);
+    }
+
+    public <T extends NoteSummary> List<T> prepare(List<T> notes) {
+        for (NoteSummary note : notes) {
+            prepare(note);
+        }
+        return notes;
+    }
+
+    public void prepare(NoteSummary note) {
+        note.setDisplayDate(note.getCreationDate() != null
+                ? dateFormat.get().format(note.getCreationDate())
+                : "");
+
+        if (note instanceof NoteSearchResult) {
+            note.setDisplayContent(buildHighlightedSnippet((NoteSearchResult) note));
+        } else {
+            note.setDisplayContent(note.getContentPreview());
+        }
+
+        int connectionCount = note.getConnectionCount();
+        note.setConnectionLabel(resources.getQuantityString(R.plurals.connections_count,
+                connectionCount, connectionCount));
+    }
+
+    private CharSequence buildHighlightedSnippet(NoteSearchResult result) {
+        SpannableString snippet = new SpannableString(result.getSnippetText());
+        int[] ranges = result.getHighlightRanges();
+
+        for (int i = 0; i + 1 < ranges.length; i += 2) {
+            snippet.setSpan(new ForegroundColorSpan(highlightColor), ranges[i], ranges[i + 1],
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            snippet.setSpan(new StyleSpan(Typeface.BOLD), ranges[i], ranges[i + 1],
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return snippet;
+    }
+}
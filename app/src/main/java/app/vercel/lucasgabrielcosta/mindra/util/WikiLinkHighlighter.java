@@ -0,0 +1,100 @@
+package app.vercel.lucasgabrielcosta.mindra.util;
+
+import android.text.Editable;
+import android.text.Spannable;
+import android.text.TextWatcher;
+import android.text.style.ForegroundColorSpan;
+import android.widget.EditText;
+
+/**
+ * Destaca os links [[título]] de um EditText de forma incremental: cada edição apenas
+ * amplia a região suja, e uma única releitura, feita depois de uma pausa na digitação,
+ * percorre só as linhas afetadas. Spans que continuam válidos são mantidos.
+ */
+public class WikiLinkHighlighter implements TextWatcher {
+
+    private static final long DEBOUNCE_MS = 120;
+
+    /**
+     * Tipo próprio para que a releitura só remova os spans criados aqui.
+     */
+    public static class LinkSpan extends ForegroundColorSpan {
+        public LinkSpan(int color) {
+            super(color);
+        }
+    }
+
+    private final EditText editText;
+    private final int linkColor;
+    private final Runnable highlightRunnable = this::highlightDirtyRegion;
+
+    private int dirtyStart = -1;
+    private int dirtyEnd = -1;
+
+    public WikiLinkHighlighter(EditText editText, int linkColor) {
+        this.editText = editText;
+        this.linkColor = linkColor;
+    }
+
+    @Override
+    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+    }
+
+    @Override
+    public void onTextChanged(CharSequence s, int start, int before, int count) {
+        // Acumula as edições em coordenadas do texto novo
+        if (dirtyStart < 0) {
+            dirtyStart = start;
+            dirtyEnd = start + count;
+            return;
+        }
+
+        if (dirtyEnd >= start + before) {
+            dirtyEnd += count - before;
+        } else {
+            dirtyEnd = Math.max(dirtyEnd, start + count);
+        }
+        dirtyStart = Math.min(dirtyStart, start);
+    }
+
+    @Override
+    public void afterTextChanged(Editable s) {
+        editText.removeCallbacks(highlightRunnable);
+        editText.postDelayed(highlightRunnable, DEBOUNCE_MS);
+    }
+
+    private void highlightDirtyRegion() {
+        Editable text = editText.getText();
+        if (text == null || dirtyStart < 0) return;
+
+        int length = text.length();
+        int start = Math.min(dirtyStart, length);
+        int end = Math.max(start, Math.min(dirtyEnd, length));
+        dirtyStart = -1;
+        dirtyEnd = -1;
+
+        int regionStart = WikiLinkParser.lineStart(text, start);
+        int regionEnd = WikiLinkParser.lineEnd(text, end);
+
+        final LinkSpan[] existing = text.getSpans(regionStart, regionEnd, LinkSpan.class);
+        final boolean[] stillValid = new boolean[existing.length];
+
+        WikiLinkParser.scan(text, regionStart, regionEnd, (source, linkStart, linkEnd, targetStart, targetEnd) -> {
+            for (int i = 0; i < existing.length; i++) {
+                if (!stillValid[i]
+                        && text.getSpanStart(existing[i]) == linkStart
+                        && text.getSpanEnd(existing[i]) == linkEnd) {
+                    stillValid[i] = true;
+                    return;
+                }
+            }
+            text.setSpan(new LinkSpan(linkColor), linkStart, linkEnd, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+        });
+
+        for (int i = 0; i < existing.length; i++) {
+            if (!stillValid[i]) {
+                text.removeSpan(existing[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package app.vercel.lucasgabrielcosta.mindra.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leitor de links no formato [[título]], em uma única passada e sem expressões regulares.
+ * Reconhece exatamente o mesmo que o padrão \[\[(.*?)\]\]: o link termina no primeiro "]]"
+ * e não atravessa quebras de linha. Por isso uma edição só pode afetar os links da(s)
+ * linha(s) editada(s), o que permite reler apenas essa região.
+ */
+public final class WikiLinkParser {
+
+    public interface LinkVisitor {
+        /**
+         * @param start       início do link, incluindo "[["
+         * @param end         fim do link (exclusivo), incluindo "]]"
+         * @param targetStart início do título dentro do texto
+         * @param targetEnd   fim do título (exclusivo)
+         */
+        void onLink(CharSequence text, int start, int end, int targetStart, int targetEnd);
+    }
+
+    private WikiLinkParser() {
+    }
+
+    public static void scan(CharSequence text, LinkVisitor visitor) {
+        if (text == null) return;
+        scan(text, 0, text.length(), visitor);
+    }
+
+    /**
+     * Percorre os links contidos inteiramente em [from, to).
+     */
+    public static void scan(CharSequence text, int from, int to, LinkVisitor visitor) {
+        if (text == null) return;
+
+        int limit = Math.min(to, text.length());
+        int i = Math.max(from, 0);
+
+        while (i + 1 < limit) {
+            if (text.charAt(i) != '[' || text.charAt(i + 1) != '[') {
+                i++;
+                continue;
+            }
+
+            int targetStart = i + 2;
+            int j = targetStart;
+            int next = -1;
+
+            while (j < limit) {
+                char c = text.charAt(j);
+                if (c == '\n') {
+                    // Nenhum "[[" antes da quebra de linha pode fechar nesta linha
+                    next = j + 1;
+                    break;
+                }
+                if (c == ']' && j + 1 < limit && text.charAt(j + 1) == ']') {
+                    visitor.onLink(text, i, j + 2, targetStart, j);
+                    next = j + 2;
+                    break;
+                }
+                j++;
+            }
+
+            if (next < 0) {
+                // Sem fechamento até o fim da região
+                return;
+            }
+            i = next;
+        }
+    }
+
+    /**
+     * Títulos distintos citados no texto, na ordem da primeira ocorrência, já reduzidos por
+     * linkTitle. Links vazios ([[]], [[#seção]]) são ignorados.
+     */
+    public static List<String> extractTargets(CharSequence text) {
+        final List<String> targets = new ArrayList<>();
+        if (text == null || text.length() == 0) {
+            return targets;
+        }
+
+        final Set<String> seen = new HashSet<>();
+        scan(text, (source, start, end, targetStart, targetEnd) -> {
+            String target = linkTitle(source, targetStart, targetEnd);
+            if (target.isEmpty()) return;
+
+            if (seen.add(target)) {
+                targets.add(target);
+            }
+        });
+        return targets;
+    }
+
+    /**
+     * Título da nota citada por um link no formato do Obsidian: "pasta/Nota.md#Seção|apelido"
+     * vira "Nota". Todo caminho que grava conexões passa por aqui, para que notas importadas
+     * e notas editadas no app resolvam os links do mesmo jeito.
+     */
+    public static String linkTitle(CharSequence text, int targetStart, int targetEnd) {
+        int end = targetEnd;
+        for (int i = targetStart; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '|' || c == '#') {
+                end = i;
+                break;
+            }
+        }
+
+        int start = targetStart;
+        for (int i = end - 1; i >= targetStart; i--) {
+            if (text.charAt(i) == '/') {
+                start = i + 1;
+                break;
+            }
+        }
+
+        String title = text.subSequence(start, end).toString().trim();
+        if (title.length() > 3 && title.regionMatches(true, title.length() - 3, ".md", 0, 3)) {
+            title = title.substring(0, title.length() - 3);
+        }
+        return title;
+    }
+
+    /**
+     * Início da linha que contém a posição.
+     */
+    public static int lineStart(CharSequence text, int position) {
+        int i = Math.min(position, text.length());
+        while (i > 0 && text.charAt(i - 1) != '\n') {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Fim (exclusivo, antes do '\n') da linha que contém a posição.
+     */
+    public static int lineEnd(CharSequence text, int position) {
+        int length = text.length();
+        int i = Math.max(position, 0);
+        while (i < length && text.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Região do texto já editado que precisa ser relida após uma alteração informada por
+     * TextWatcher.onTextChanged(s, start, before, count): as linhas que contêm o trecho
+     * inserido. Retorna {início, fim}.
+     */
+    public static int[] dirtyRegion(CharSequence text, int start, int before, int count) {
+        int length = text.length();
+        int editStart = Math.max(0, Math.min(start, length));
+        int editEnd = Math.max(editStart, Math.min(start + count, length));
+
+        return new int[]{lineStart(text, editStart), lineEnd(text, editEnd)};
+    }
+
+    /**
+     * Relê apenas a região afetada por uma edição e devolve essa região.
+     */
+    public static int[] reparse(CharSequence text, int start, int before, int count, LinkVisitor visitor) {
+        int[] region = dirtyRegion(text, start, before, count);
+        scan(text, region[0], region[1], visitor);
+        return region;
+    }
+}
@@ -0,0 +1,218 @@
+package app.vercel.lucasgabrielcosta.mindra.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cache de blocos (tiles) rasterizados do grafo. Cada bloco cobre uma região fixa do
+ * grafo em um nível de zoom quantizado; ao arrastar, os blocos já prontos são apenas
+ * copiados para a tela. O consumo de memória é limitado por um orçamento em bytes (LRU).
+ * <p>
+ * Todo bloco tem o mesmo tamanho, então o orçamento vira um número fixo de vagas, com a
+ * chave em um long[]: consultar os blocos visíveis a cada quadro não aloca nada (um
+ * LruCache&lt;Long, Bitmap&gt; criaria um Long por bloco por quadro). O orçamento cabe em
+ * poucas dezenas de vagas, e a busca linear nelas custa menos que o hash de um Long.
+ * <p>
+ * Um bloco descartado ainda pode estar na display list do quadro atual ou do anterior, que
+ * a RenderThread desenha depois. Por isso nenhum bitmap é reciclado, e um descartado só é
+ * apagado e reaproveitado depois que o quadro seguinte ao descarte foi gravado.
+ */
+class GraphTileCache {
+
+    interface TileRenderer {
+        /**
+         * Desenha a região [left, right] x [top, bottom] do grafo. O canvas já está
+         * transladado e escalado para a escala do bloco.
+         */
+        void renderTile(Canvas canvas, float left, float top, float right, float bottom, float scale);
+    }
+
+    static final int TILE_SIZE = 512;
+
+    // Dois níveis por potência de 2: ao copiar, o bloco é esticado no máximo ~19%
+    private static final float BUCKETS_PER_OCTAVE = 2f;
+    private static final int MAX_SPARE_BITMAPS = 4;
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 4;
+    private static final long NO_TILE = Long.MIN_VALUE;
+
+    // Vaga i: chave do bloco (NO_TILE se livre), bitmap e último quadro em que foi desenhado
+    private final long[] slotKeys;
+    private final Bitmap[] slotBitmaps;
+    private final long[] slotLastUsed;
+    private long frame;
+    private final int maxBytes;
+    // Prontos para reuso; descartados no quadro atual; descartados no quadro anterior
+    private final ArrayDeque<Bitmap> spareBitmaps = new ArrayDeque<>();
+    private List<Bitmap> retiredThisFrame = new ArrayList<>();
+    private List<Bitmap> retiredLastFrame = new ArrayList<>();
+    private final Canvas tileCanvas = new Canvas();
+    private final Paint blitPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    GraphTileCache(int maxBytes) {
+        this.maxBytes = maxBytes;
+        int slots = Math.max(0, maxBytes / TILE_BYTES);
+        slotKeys = new long[slots];
+        slotBitmaps = new Bitmap[slots];
+        slotLastUsed = new long[slots];
+        Arrays.fill(slotKeys, NO_TILE);
+    }
+
+    static int zoomBucket(float scale) {
+        return Math.round((float) (Math.log(scale) / Math.log(2)) * BUCKETS_PER_OCTAVE);
+    }
+
+    static float bucketScale(int bucket) {
+        return (float) Math.pow(2, bucket / BUCKETS_PER_OCTAVE);
+    }
+
+    static long tileKey(int bucket, int tileX, int tileY) {
+        return ((long) (bucket & 0xFFFF) << 48) | ((long) (tileX & 0xFFFFFF) << 24) | (tileY & 0xFFFFFF);
+    }
+
+    /**
+     * Desenha a área visível a partir dos blocos, rasterizando os que faltam. Devolve false,
+     * sem desenhar nada, se o orçamento não comporta os blocos visíveis e uma margem de uma
+     * linha e uma coluna para o arraste: nesse caso o LRU descartaria blocos a cada quadro.
+     */
+    boolean draw(Canvas canvas, float translateX, float translateY, float scale, int width, int height,
+                 TileRenderer renderer) {
+        int bucket = zoomBucket(scale);
+        float tileScale = bucketScale(bucket);
+        float stretch = scale / tileScale;
+
+        // Área visível em pixels do nível de zoom do bloco
+        float left = -translateX / stretch;
+        float top = -translateY / stretch;
+        float right = (width - translateX) / stretch;
+        float bottom = (height - translateY) / stretch;
+
+        int firstX = (int) Math.floor(left / TILE_SIZE);
+        int lastX = (int) Math.floor(right / TILE_SIZE);
+        int firstY = (int) Math.floor(top / TILE_SIZE);
+        int lastY = (int) Math.floor(bottom / TILE_SIZE);
+
+        long neededBytes = (long) (lastX - firstX + 2) * (lastY - firstY + 2) * TILE_BYTES;
+        if (neededBytes > maxBytes) return false;
+
+        recycleRetiredBitmaps();
+        frame++;
+
+        canvas.save();
+        canvas.translate(translateX, translateY);
+        canvas.scale(stretch, stretch);
+
+        for (int tileY = firstY; tileY <= lastY; tileY++) {
+            for (int tileX = firstX; tileX <= lastX; tileX++) {
+                long key = tileKey(bucket, tileX, tileY);
+                int slot = findSlot(key);
+                if (slot < 0) {
+                    // O orçamento conferido acima garante uma vaga fora deste quadro
+                    slot = evictLeastRecentlyUsed();
+                    slotKeys[slot] = key;
+                    slotBitmaps[slot] = renderTile(tileX, tileY, tileScale, renderer);
+                }
+                slotLastUsed[slot] = frame;
+                canvas.drawBitmap(slotBitmaps[slot], tileX * TILE_SIZE, tileY * TILE_SIZE, blitPaint);
+            }
+        }
+
+        canvas.restore();
+        return true;
+    }
+
+    private int findSlot(long key) {
+        for (int i = 0; i < slotKeys.length; i++) {
+            if (slotKeys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    // Vaga livre, ou a desenhada há mais tempo; nunca uma já usada no quadro atual
+    private int evictLeastRecentlyUsed() {
+        int oldest = -1;
+        for (int i = 0; i < slotKeys.length; i++) {
+            if (slotKeys[i] == NO_TILE) return i;
+            if (slotLastUsed[i] != frame && (oldest < 0 || slotLastUsed[i] < slotLastUsed[oldest])) {
+                oldest = i;
+            }
+        }
+        retire(oldest);
+        return oldest;
+    }
+
+    private void retire(int slot) {
+        // Guarda alguns para reuso; os demais ficam para o GC
+        if (retiredThisFrame.size() < MAX_SPARE_BITMAPS) {
+            retiredThisFrame.add(slotBitmaps[slot]);
+        }
+        slotKeys[slot] = NO_TILE;
+        slotBitmaps[slot] = null;
+    }
+
+    // Chamado no início de cada quadro: o anterior já foi gravado sem os bitmaps que ele descartou
+    private void recycleRetiredBitmaps() {
+        for (Bitmap bitmap : retiredLastFrame) {
+            if (spareBitmaps.size() < MAX_SPARE_BITMAPS) {
+                spareBitmaps.push(bitmap);
+            }
+        }
+        retiredLastFrame.clear();
+
+        List<Bitmap> swap = retiredLastFrame;
+        retiredLastFrame = retiredThisFrame;
+        retiredThisFrame = swap;
+    }
+
+    private Bitmap renderTile(int tileX, int tileY, float tileScale, TileRenderer renderer) {
+        Bitmap bitmap = spareBitmaps.poll();
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+
+        float originX = tileX * TILE_SIZE;
+        float originY = tileY * TILE_SIZE;
+
+        tileCanvas.setBitmap(bitmap);
+        tileCanvas.save();
+        tileCanvas.translate(-originX, -originY);
+        tileCanvas.scale(tileScale, tileScale);
+        renderer.renderTile(tileCanvas,
+                originX / tileScale, originY / tileScale,
+                (originX + TILE_SIZE) / tileScale, (originY + TILE_SIZE) / tileScale,
+                tileScale);
+        tileCanvas.restore();
+        tileCanvas.setBitmap(null);
+
+        return bitmap;
+    }
+
+    /**
+     * Descarta todos os blocos (posições, seleção ou conteúdo mudaram).
+     */
+    void invalidate() {
+        for (int i = 0; i < slotKeys.length; i++) {
+            if (slotKeys[i] != NO_TILE) retire(i);
+        }
+    }
+
+    /**
+     * Solta todas as referências; os bitmaps ficam para o GC, pois um quadro já gravado
+     * ainda pode usá-los.
+     */
+    void release() {
+        Arrays.fill(slotKeys, NO_TILE);
+        Arrays.fill(slotBitmaps, null);
+        retiredThisFrame.clear();
+        retiredLastFrame.clear();
+        spareBitmaps.clear();
+    }
+}
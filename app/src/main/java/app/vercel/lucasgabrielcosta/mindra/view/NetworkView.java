@@ -14,35 +14,92 @@ import android.view.View;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Objects;
+import java.util.Set;
 
 import app.vercel.lucasgabrielcosta.mindra.R;
-import app.vercel.lucasgabrielcosta.mindra.model.Note;
+import app.vercel.lucasgabrielcosta.mindra.graph.EdgeGeometry;
+import app.vercel.lucasgabrielcosta.mindra.graph.ForceLayout;
+import app.vercel.lucasgabrielcosta.mindra.graph.GraphModel;
+import app.vercel.lucasgabrielcosta.mindra.graph.LayoutRunner;
+import app.vercel.lucasgabrielcosta.mindra.graph.NodeClusters;
+import app.vercel.lucasgabrielcosta.mindra.graph.SpatialGrid;
+import app.vercel.lucasgabrielcosta.mindra.model.NoteNode;
+import app.vercel.lucasgabrielcosta.mindra.model.NotePosition;
 
 public class NetworkView extends View {
     private static final String TAG = "NetworkView";
 
     public interface OnNodeSelectedListener {
-        void onNodeSelected(Note note);
+        void onNodeSelected(NoteNode note);
+    }
+
+    public interface OnLayoutSettledListener {
+        /**
+         * Chamado na thread principal quando o layout termina, com as posições que mudaram.
+         */
+        void onLayoutSettled(List<NotePosition> positions);
     }
 
     private static final float NODE_RADIUS = 60f;
     private static final float NODE_SPACING = 250f;
     private static final int TEXT_SIZE = 28;
     private static final int MAX_TITLE_LENGTH = 10;
-
-    private List<Note> notes = new ArrayList<>();
-    private Map<String, List<Integer>> connectionsMap = new HashMap<>();
-    private List<NodePosition> nodePositions = new ArrayList<>();
+    private static final float ARROW_SIZE = 15f;
+
+    // Níveis de detalhe por zoom: sem títulos, depois nós como pontos e sem setas,
+    // e por fim regiões densas agrupadas em um único marcador
+    private static final float DEFAULT_LABEL_MIN_SCALE = 0.45f;
+    private static final float DEFAULT_SHAPE_MIN_SCALE = 0.25f;
+    private static final float DEFAULT_CLUSTER_MAX_SCALE = 0.15f;
+    private static final float CLUSTER_CELL_PX = 48f;
+
+    private List<NoteNode> notes = new ArrayList<>();
+    private String[] displayTitles = new String[0];
+    private GraphModel graph = GraphModel.build(new int[0], new ArrayList<>());
+    private float[] nodeX = new float[0];
+    private float[] nodeY = new float[0];
+    private int nodeCount = 0;
     private OnNodeSelectedListener nodeSelectedListener;
+    private OnLayoutSettledListener layoutSettledListener;
+    // Nós cuja posição ainda não foi entregue ao OnLayoutSettledListener
+    private boolean[] unsavedNodes;
+
+    private final SpatialGrid nodeGrid = new SpatialGrid();
+    private final EdgeGeometry edgeGeometry = new EdgeGeometry();
+    private final Path arrowPath = new Path();
+    private final NodeClusters nodeClusters = new NodeClusters();
+    private float[] pointBuffer = new float[0];
+
+    private float labelMinScale = DEFAULT_LABEL_MIN_SCALE;
+    private float shapeMinScale = DEFAULT_SHAPE_MIN_SCALE;
+    private float clusterMaxScale = DEFAULT_CLUSTER_MAX_SCALE;
+    private int[] visibleNodes = new int[0];
+    private int visibleNodeCount = 0;
+    private float viewportLeft;
+    private float viewportTop;
+    private float viewportRight;
+    private float viewportBottom;
+
+    private LayoutRunner layoutRunner;
+    private final Runnable applyLayoutFrame = this::applyLayoutFrame;
+    // Só a thread principal lê e escreve: o aviso de fim do layout chega por post()
+    private boolean layoutSettled = false;
+    // Identifica o layout atual; avisos de um layout já substituído são ignorados
+    private int layoutRun;
+
+    private GraphTileCache tileCache;
+    // Orçamento pedido em enableTileCache; o cache é recriado se a view voltar à janela
+    private int tileCacheBytes;
+    private final GraphTileCache.TileRenderer tileRenderer = this::renderTile;
 
     private float translateX;
     private float translateY;
     private float scaleFactor = 1.0f;
     private int selectedNodeIndex = -1;
-    private boolean positionsInitialized = false;
 
     private ScaleGestureDetector scaleGestureDetector;
     private float lastTouchX;
@@ -57,17 +114,9 @@ public class NetworkView extends View {
     private Paint textPaint;
     private Paint linePaint;
     private Paint arrowPaint;
-
-    private static class NodePosition {
-        float x, y;
-        Note note;
-
-        NodePosition(float x, float y, Note note) {
-            this.x = x;
-            this.y = y;
-            this.note = note;
-        }
-    }
+    private Paint pointPaint;
+    private Paint farLinePaint;
+    private float textOffset;
 
     public NetworkView(Context context) {
         super(context);
@@ -102,6 +151,7 @@ public class NetworkView extends View {
         textPaint.setTextSize(TEXT_SIZE);
         textPaint.setTextAlign(Paint.Align.CENTER);
         textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        textOffset = (textPaint.descent() - textPaint.ascent()) / 2 - textPaint.descent();
 
         linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         linePaint.setColor(getResources().getColor(R.color.primary_light));
@@ -111,78 +161,358 @@ public class NetworkView extends View {
         arrowPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         arrowPaint.setColor(getResources().getColor(R.color.primary_light));
         arrowPaint.setStyle(Paint.Style.FILL);
+
+        // Pintura barata para zoom distante: sem antialias, linha de 1px independente da escala
+        pointPaint = new Paint();
+        pointPaint.setColor(getResources().getColor(R.color.primary));
+        pointPaint.setStrokeWidth(2 * NODE_RADIUS);
+        pointPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        farLinePaint = new Paint();
+        farLinePaint.setColor(getResources().getColor(R.color.primary_light));
+        farLinePaint.setStyle(Paint.Style.STROKE);
+        farLinePaint.setStrokeWidth(0f);
     }
 
     public void setOnNodeSelectedListener(OnNodeSelectedListener listener) {
         this.nodeSelectedListener = listener;
     }
 
-    public void setNotes(List<Note> notes) {
-        this.notes = notes;
-        generateConnectionsMap();
-        positionsInitialized = false;
-        requestLayout();
+    public void setOnLayoutSettledListener(OnLayoutSettledListener listener) {
+        this.layoutSettledListener = listener;
+    }
+
+    /**
+     * Define os limites de zoom do nível de detalhe. Abaixo de labelMinScale os títulos
+     * não são desenhados; abaixo de shapeMinScale os nós viram pontos e as setas somem;
+     * abaixo de clusterMaxScale regiões densas são agrupadas (0 desativa o agrupamento).
+     */
+    public void setDetailThresholds(float labelMinScale, float shapeMinScale, float clusterMaxScale) {
+        this.labelMinScale = labelMinScale;
+        this.shapeMinScale = shapeMinScale;
+        this.clusterMaxScale = clusterMaxScale;
+        invalidateTiles();
         invalidate();
     }
 
-    private void generateConnectionsMap() {
-        connectionsMap.clear();
+    public void setNotes(List<NoteNode> notes) {
+        setNotes(notes, null);
+    }
 
-        // Mapeia todas as conexões possíveis
-        for (int i = 0; i < notes.size(); i++) {
-            List<String> connections = notes.get(i).getConnections();
-            if (connections != null) {
-                for (String connection : connections) {
-                    // Adiciona a conexão ao mapa
-                    if (!connectionsMap.containsKey(connection)) {
-                        connectionsMap.put(connection, new ArrayList<>());
-                    }
-                    connectionsMap.get(connection).add(i);
-                }
+    /**
+     * Define as notas partindo de posições salvas. Notas cujo título e conexões não mudaram
+     * desde que a posição foi salva ficam paradas; só as demais passam pelo layout.
+     */
+    public void setNotes(List<NoteNode> notes, List<NotePosition> saved) {
+        this.notes = new ArrayList<>(notes);
+        selectedNodeIndex = -1;
+        buildGraph();
+
+        int count = this.notes.size();
+        Map<Integer, NotePosition> savedById = new HashMap<>();
+        if (saved != null) {
+            for (NotePosition position : saved) {
+                savedById.put(position.getNoteId(), position);
             }
         }
+
+        float[] px = new float[count];
+        float[] py = new float[count];
+        boolean[] hasPosition = new boolean[count];
+        boolean[] movable = new boolean[count];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            NoteNode note = this.notes.get(i);
+            NotePosition position = savedById.get(note.getId());
+            if (position == null) continue;
+
+            px[i] = position.getX();
+            py[i] = position.getY();
+            hasPosition[i] = true;
+            movable[i] = position.getLinkHash() != note.getLinkHash();
+            kept++;
+        }
+
+        if (kept > 0) {
+            startLayout(px, py, hasPosition, movable);
+        } else {
+            startLayout(null, null, null, null);
+        }
+        invalidateTiles();
+        invalidate();
     }
 
-    private void generateNodePositions() {
-        nodePositions.clear();
-        if (notes.isEmpty()) return;
+    /**
+     * Aplica um novo conjunto de notas mantendo as posições das que já estavam no grafo.
+     * Só as notas novas, as alteradas e as que ganharam ou perderam arestas voltam a se acomodar.
+     *
+     * @return false se nada mudou; nesse caso nenhum trabalho é feito
+     */
+    public boolean updateNotes(List<NoteNode> updated) {
+        int count = updated.size();
+        Map<Integer, Integer> oldIndexById = new HashMap<>(nodeCount * 2);
+        for (int i = 0; i < nodeCount; i++) {
+            oldIndexById.put(notes.get(i).getId(), i);
+        }
 
-        Log.d(TAG, "Gerando posições para " + notes.size() + " nós");
+        boolean changed = count != nodeCount;
+        int[] oldIndex = new int[count];
+        for (int i = 0; i < count; i++) {
+            Integer old = oldIndexById.get(updated.get(i).getId());
+            oldIndex[i] = old != null ? old : -1;
+            if (old == null || old != i || !sameContent(notes.get(old), updated.get(i))) {
+                changed = true;
+            }
+        }
+        if (!changed) return false;
 
-        Random random = new Random(System.currentTimeMillis());
-        int width = getWidth();
-        int height = getHeight();
+        boolean[] movable = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            movable[i] = oldIndex[i] >= 0 && !sameContent(notes.get(oldIndex[i]), updated.get(i));
+        }
 
-        translateX = width / 2f;
-        translateY = height / 2f;
+        Set<Long> oldEdges = edgeKeys(notes, graph);
+        int selectedId = selectedNodeIndex >= 0 ? notes.get(selectedNodeIndex).getId() : -1;
+        float[] oldX = nodeX;
+        float[] oldY = nodeY;
+
+        notes = new ArrayList<>(updated);
+        buildGraph();
+        Set<Long> newEdges = edgeKeys(notes, graph);
+
+        Map<Integer, Integer> indexById = new HashMap<>(count * 2);
+        float[] px = new float[count];
+        float[] py = new float[count];
+        boolean[] hasPosition = new boolean[count];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            indexById.put(notes.get(i).getId(), i);
+            if (oldIndex[i] >= 0) {
+                px[i] = oldX[oldIndex[i]];
+                py[i] = oldY[oldIndex[i]];
+                hasPosition[i] = true;
+                kept++;
+            }
+        }
 
-        if (width <= 0) width = 1000;
-        if (height <= 0) height = 1000;
+        // Extremidades de arestas que surgiram ou sumiram precisam se reacomodar
+        markChangedEndpoints(newEdges, oldEdges, indexById, movable);
+        markChangedEndpoints(oldEdges, newEdges, indexById, movable);
 
-        float centerX = 0;
-        float centerY = 0;
+        Integer selected = indexById.get(selectedId);
+        selectedNodeIndex = selected != null ? selected : -1;
 
-        if (!notes.isEmpty()) {
-            NodePosition firstNode = new NodePosition(centerX, centerY, notes.get(0));
-            nodePositions.add(firstNode);
+        if (kept > 0) {
+            startLayout(px, py, hasPosition, movable);
+        } else {
+            startLayout(null, null, null, null);
         }
+        invalidateTiles();
+        invalidate();
+        return true;
+    }
 
-        int nodeCount = notes.size();
-        for (int i = 1; i < nodeCount; i++) {
-            float angle = (float) (2 * Math.PI * i / nodeCount);
-            float distance = NODE_SPACING * Math.min(nodeCount * 0.15f, 2.0f);
+    public void addNote(NoteNode note) {
+        List<NoteNode> updated = new ArrayList<>(notes);
+        updated.add(note);
+        updateNotes(updated);
+    }
 
-            angle += random.nextFloat() * 0.2f - 0.1f;
-            distance += random.nextFloat() * (NODE_SPACING * 0.3f);
+    public void updateNote(NoteNode note) {
+        List<NoteNode> updated = new ArrayList<>(notes);
+        for (int i = 0; i < updated.size(); i++) {
+            if (updated.get(i).getId() == note.getId()) {
+                updated.set(i, note);
+                updateNotes(updated);
+                return;
+            }
+        }
+        addNote(note);
+    }
 
-            float x = centerX + distance * (float) Math.cos(angle);
-            float y = centerY + distance * (float) Math.sin(angle);
+    public void removeNote(int noteId) {
+        List<NoteNode> updated = new ArrayList<>(notes);
+        for (int i = 0; i < updated.size(); i++) {
+            if (updated.get(i).getId() == noteId) {
+                updated.remove(i);
+                updateNotes(updated);
+                return;
+            }
+        }
+    }
+
+    private static boolean sameContent(NoteNode a, NoteNode b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getTargetIds(), b.getTargetIds());
+    }
+
+    // Arestas identificadas pelos ids das notas, que não mudam entre versões do grafo
+    private static Set<Long> edgeKeys(List<NoteNode> notes, GraphModel graph) {
+        Set<Long> keys = new HashSet<>(graph.getEdgeCount() * 2);
+        int[] source = graph.getEdgeSource();
+        int[] target = graph.getEdgeTarget();
+        for (int e = 0; e < graph.getEdgeCount(); e++) {
+            keys.add(((long) notes.get(source[e]).getId() << 32) | (notes.get(target[e]).getId() & 0xFFFFFFFFL));
+        }
+        return keys;
+    }
+
+    private static void markChangedEndpoints(Set<Long> edges, Set<Long> other,
+                                             Map<Integer, Integer> indexById, boolean[] movable) {
+        for (long key : edges) {
+            if (other.contains(key)) continue;
 
-            nodePositions.add(new NodePosition(x, y, notes.get(i)));
+            Integer source = indexById.get((int) (key >>> 32));
+            Integer target = indexById.get((int) key);
+            if (source != null) movable[source] = true;
+            if (target != null) movable[target] = true;
+        }
+    }
+
+    // Tudo que o onDraw consulta é montado aqui, uma vez por conjunto de notas
+    private void buildGraph() {
+        int count = notes.size();
+        int[] ids = new int[count];
+        List<List<Integer>> targets = new ArrayList<>(count);
+
+        displayTitles = new String[count];
+        for (int i = 0; i < count; i++) {
+            NoteNode note = notes.get(i);
+            String title = note.getTitle() != null ? note.getTitle() : "";
+            ids[i] = note.getId();
+            targets.add(note.getTargetIds());
+
+            displayTitles[i] = title.length() > MAX_TITLE_LENGTH
+                    ? title.substring(0, MAX_TITLE_LENGTH) + "..."
+                    : title;
         }
 
-        positionsInitialized = true;
-        Log.d(TAG, "Posições geradas: " + nodePositions.size());
+        graph = GraphModel.build(ids, targets);
+        edgeGeometry.ensureCapacity(graph.getEdgeCount());
+    }
+
+    private void startLayout(float[] px, float[] py, boolean[] hasPosition, boolean[] movable) {
+        final int run = ++layoutRun;
+        layoutSettled = false;
+        nodeCount = notes.size();
+        nodeX = new float[nodeCount];
+        nodeY = new float[nodeCount];
+        visibleNodes = new int[nodeCount];
+        pointBuffer = new float[nodeCount * 2];
+
+        if (nodeCount == 0) {
+            nodeGrid.build(nodeX, nodeY, 0, 2 * NODE_RADIUS);
+            if (layoutRunner != null) layoutRunner.cancel();
+            return;
+        }
+
+        Log.d(TAG, "Iniciando layout para " + nodeCount + " nós e " + graph.getEdgeCount() + " arestas");
+
+        ForceLayout layout = new ForceLayout(nodeCount, graph.getEdgeSource(), graph.getEdgeTarget(), NODE_SPACING);
+        unsavedNodes = new boolean[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            unsavedNodes[i] = hasPosition == null || movable[i] || !hasPosition[i];
+        }
+        if (hasPosition != null) {
+            layout.resumeFrom(px, py, hasPosition, movable);
+        }
+        // Posições iniciais já disponíveis para o primeiro quadro
+        layout.copyPositions(nodeX, nodeY);
+        nodeGrid.build(nodeX, nodeY, nodeCount, 2 * NODE_RADIUS);
+
+        if (layoutRunner == null) {
+            layoutRunner = new LayoutRunner();
+        }
+        layoutRunner.start(layout, finished -> {
+            if (!finished) {
+                postOnAnimation(applyLayoutFrame);
+                return;
+            }
+            // O layout anterior pode terminar depois que este começou: confere na thread principal
+            post(() -> {
+                if (run != layoutRun) return;
+                layoutSettled = true;
+                applyLayoutFrame();
+                notifyLayoutSettled();
+                // Com o layout parado, o próximo quadro já pode usar os blocos
+                invalidate();
+            });
+        });
+    }
+
+    private void applyLayoutFrame() {
+        if (layoutRunner != null && layoutRunner.copyLatest(nodeX, nodeY) >= 0) {
+            nodeGrid.build(nodeX, nodeY, nodeCount, 2 * NODE_RADIUS);
+            invalidateTiles();
+            invalidate();
+        }
+    }
+
+    private void notifyLayoutSettled() {
+        if (unsavedNodes == null) return;
+
+        List<NotePosition> positions = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            if (unsavedNodes[i]) {
+                NoteNode note = notes.get(i);
+                positions.add(new NotePosition(note.getId(), nodeX[i], nodeY[i], note.getLinkHash()));
+            }
+        }
+        unsavedNodes = null;
+
+        if (layoutSettledListener != null && !positions.isEmpty()) {
+            layoutSettledListener.onLayoutSettled(positions);
+        }
+    }
+
+    /**
+     * Ativa o cache de blocos rasterizados: com o layout estável, arrastar o grafo só
+     * copia bitmaps já prontos. maxBytes limita a memória ocupada pelos blocos.
+     */
+    public void enableTileCache(int maxBytes) {
+        if (tileCache != null) tileCache.release();
+        tileCacheBytes = maxBytes;
+        tileCache = new GraphTileCache(maxBytes);
+        invalidate();
+    }
+
+    public void disableTileCache() {
+        if (tileCache != null) {
+            tileCache.release();
+            tileCache = null;
+        }
+        tileCacheBytes = 0;
+        invalidate();
+    }
+
+    private void invalidateTiles() {
+        if (tileCache != null) tileCache.invalidate();
+    }
+
+    // Os blocos só valem a pena com as posições paradas e fora de um gesto de zoom
+    private boolean canUseTiles() {
+        return tileCache != null && layoutSettled && !scaleGestureDetector.isInProgress();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (layoutRunner != null) {
+            layoutRunner.shutdown();
+            layoutRunner = null;
+        }
+        if (tileCache != null) {
+            tileCache.release();
+            tileCache = null;
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (tileCache == null && tileCacheBytes > 0) {
+            tileCache = new GraphTileCache(tileCacheBytes);
+        }
     }
 
     @Override
@@ -192,107 +522,133 @@ public class NetworkView extends View {
 
         translateX = w / 2f;
         translateY = h / 2f;
-
-        if (!positionsInitialized || nodePositions.isEmpty()) {
-            generateNodePositions();
-        }
     }
 
+    // Nenhuma alocação aqui: títulos, adjacência e buffers de geometria vêm prontos de buildGraph()
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (!positionsInitialized && getWidth() > 0 && getHeight() > 0) {
-            generateNodePositions();
+        if (nodeCount == 0) {
+            return;
         }
 
-        if (nodePositions.isEmpty()) {
+        // Sem orçamento para cobrir a tela, desenha direto em vez de descartar blocos a cada quadro
+        if (canUseTiles()
+                && tileCache.draw(canvas, translateX, translateY, scaleFactor, getWidth(), getHeight(), tileRenderer)) {
             return;
         }
 
+        updateViewport(-translateX / scaleFactor, -translateY / scaleFactor,
+                (getWidth() - translateX) / scaleFactor, (getHeight() - translateY) / scaleFactor);
+
         canvas.save();
         canvas.translate(translateX, translateY);
         canvas.scale(scaleFactor, scaleFactor);
-
-        drawConnections(canvas);
-
-        drawNodes(canvas);
-
+        drawScene(canvas, scaleFactor);
         canvas.restore();
     }
 
-    private void drawConnections(Canvas canvas) {
-        for (int i = 0; i < nodePositions.size(); i++) {
-            NodePosition sourceNode = nodePositions.get(i);
-            Note sourceNote = sourceNode.note;
-
-            if (sourceNote.getConnections() == null || sourceNote.getConnections().isEmpty()) {
-                continue;
-            }
-
-            for (String connection : sourceNote.getConnections()) {
-                List<Integer> connectedNodeIndices = connectionsMap.get(connection);
-                if (connectedNodeIndices == null) continue;
+    private void renderTile(Canvas canvas, float left, float top, float right, float bottom, float scale) {
+        updateViewport(left, top, right, bottom);
+        drawScene(canvas, scale);
+    }
 
-                for (Integer targetIndex : connectedNodeIndices) {
-                    if (targetIndex != i && targetIndex < nodePositions.size()) {
-                        NodePosition targetNode = nodePositions.get(targetIndex);
-                        drawConnection(canvas, sourceNode, targetNode);
-                    }
-                }
+    private void drawScene(Canvas canvas, float scale) {
+        if (scale >= shapeMinScale) {
+            drawConnections(canvas);
+            drawNodes(canvas, scale >= labelMinScale);
+        } else {
+            drawSegments(canvas);
+            if (scale < clusterMaxScale) {
+                drawClusters(canvas, scale);
+            } else {
+                drawPoints(canvas);
             }
         }
     }
 
-    private void drawConnection(Canvas canvas, NodePosition source, NodePosition target) {
-        float sourceX = source.x;
-        float sourceY = source.y;
-        float targetX = target.x;
-        float targetY = target.y;
-
-        double angle = Math.atan2(targetY - sourceY, targetX - sourceX);
-
-        float startX = (float) (sourceX + NODE_RADIUS * Math.cos(angle));
-        float startY = (float) (sourceY + NODE_RADIUS * Math.sin(angle));
-        float endX = (float) (targetX - NODE_RADIUS * Math.cos(angle));
-        float endY = (float) (targetY - NODE_RADIUS * Math.sin(angle));
-
-        canvas.drawLine(startX, startY, endX, endY, linePaint);
+    // Área a desenhar em coordenadas do grafo, e os nós dentro dela (a margem cobre círculo e título)
+    private void updateViewport(float left, float top, float right, float bottom) {
+        viewportLeft = left;
+        viewportTop = top;
+        viewportRight = right;
+        viewportBottom = bottom;
 
-        drawArrow(canvas, endX, endY, angle);
+        visibleNodeCount = nodeGrid.queryRect(viewportLeft, viewportTop, viewportRight, viewportBottom,
+                2 * NODE_RADIUS, visibleNodes);
     }
 
-    private void drawArrow(Canvas canvas, float x, float y, double angle) {
-        float arrowSize = 15f;
-
-        Path path = new Path();
-        path.moveTo(x, y);
-        path.lineTo((float) (x - arrowSize * Math.cos(angle - Math.PI/6)),
-                (float) (y - arrowSize * Math.sin(angle - Math.PI/6)));
-        path.lineTo((float) (x - arrowSize * Math.cos(angle + Math.PI/6)),
-                (float) (y - arrowSize * Math.sin(angle + Math.PI/6)));
-        path.close();
-
-        canvas.drawPath(path, arrowPaint);
+    private void drawConnections(Canvas canvas) {
+        int edges = edgeGeometry.build(nodeX, nodeY, graph.getEdgeSource(), graph.getEdgeTarget(),
+                graph.getEdgeCount(), NODE_RADIUS, ARROW_SIZE,
+                viewportLeft, viewportTop, viewportRight, viewportBottom);
+        if (edges == 0) return;
+
+        canvas.drawLines(edgeGeometry.getLines(), 0, edges * 4, linePaint);
+
+        // Todas as setas em um único Path reaproveitado entre quadros
+        float[] arrows = edgeGeometry.getArrows();
+        arrowPath.rewind();
+        for (int e = 0; e < edges; e++) {
+            int a = e * 6;
+            arrowPath.moveTo(arrows[a], arrows[a + 1]);
+            arrowPath.lineTo(arrows[a + 2], arrows[a + 3]);
+            arrowPath.lineTo(arrows[a + 4], arrows[a + 5]);
+            arrowPath.close();
+        }
+        canvas.drawPath(arrowPath, arrowPaint);
     }
 
-    private void drawNodes(Canvas canvas) {
-        for (int i = 0; i < nodePositions.size(); i++) {
-            NodePosition node = nodePositions.get(i);
-
+    private void drawNodes(Canvas canvas, boolean withLabels) {
+        for (int v = 0; v < visibleNodeCount; v++) {
+            int i = visibleNodes[v];
             Paint currentPaint = (i == selectedNodeIndex) ? selectedNodePaint : nodePaint;
 
-            canvas.drawCircle(node.x, node.y, NODE_RADIUS, currentPaint);
-
-            String title = node.note.getTitle();
-            if (title.length() > MAX_TITLE_LENGTH) {
-                title = title.substring(0, MAX_TITLE_LENGTH) + "...";
+            canvas.drawCircle(nodeX[i], nodeY[i], NODE_RADIUS, currentPaint);
+            if (withLabels) {
+                canvas.drawText(displayTitles[i], nodeX[i], nodeY[i] + textOffset, textPaint);
             }
+        }
+    }
 
-            float textHeight = textPaint.descent() - textPaint.ascent();
-            float textOffset = textHeight / 2 - textPaint.descent();
+    private void drawSegments(Canvas canvas) {
+        int edges = edgeGeometry.buildSegments(nodeX, nodeY, graph.getEdgeSource(), graph.getEdgeTarget(),
+                graph.getEdgeCount(), viewportLeft, viewportTop, viewportRight, viewportBottom);
+        if (edges > 0) {
+            canvas.drawLines(edgeGeometry.getLines(), 0, edges * 4, farLinePaint);
+        }
+    }
+
+    private void drawPoints(Canvas canvas) {
+        for (int v = 0; v < visibleNodeCount; v++) {
+            int i = visibleNodes[v];
+            pointBuffer[v * 2] = nodeX[i];
+            pointBuffer[v * 2 + 1] = nodeY[i];
+        }
+        canvas.drawPoints(pointBuffer, 0, visibleNodeCount * 2, pointPaint);
+        drawSelectedNode(canvas);
+    }
+
+    private void drawClusters(Canvas canvas, float scale) {
+        float cell = CLUSTER_CELL_PX / scale;
+        int clusters = nodeClusters.build(nodeX, nodeY, visibleNodes, visibleNodeCount,
+                viewportLeft, viewportTop, viewportRight, viewportBottom, cell);
+
+        float[] clusterX = nodeClusters.getClusterX();
+        float[] clusterY = nodeClusters.getClusterY();
+        int[] clusterSize = nodeClusters.getClusterSize();
+        for (int k = 0; k < clusters; k++) {
+            // A área do marcador cresce com o número de nós, sem invadir a célula vizinha
+            float radius = Math.min(NODE_RADIUS * (float) Math.sqrt(clusterSize[k]), cell / 2);
+            canvas.drawCircle(clusterX[k], clusterY[k], radius, nodePaint);
+        }
+        drawSelectedNode(canvas);
+    }
 
-            canvas.drawText(title, node.x, node.y + textOffset, textPaint);
+    private void drawSelectedNode(Canvas canvas) {
+        if (selectedNodeIndex >= 0 && selectedNodeIndex < nodeCount) {
+            canvas.drawCircle(nodeX[selectedNodeIndex], nodeY[selectedNodeIndex], NODE_RADIUS, selectedNodePaint);
         }
     }
 
@@ -316,10 +672,11 @@ public class NetworkView extends View {
                     long clickTime = System.currentTimeMillis();
                     if (clickTime - lastClickTime < DOUBLE_CLICK_TIME_DELTA) {
                         if (nodeSelectedListener != null) {
-                            nodeSelectedListener.onNodeSelected(nodePositions.get(nodeIndex).note);
+                            nodeSelectedListener.onNodeSelected(notes.get(nodeIndex));
                         }
                     } else {
                         selectedNodeIndex = nodeIndex;
+                        invalidateTiles();
                         invalidate();
                     }
                     lastClickTime = clickTime;
@@ -358,15 +715,7 @@ public class NetworkView extends View {
         float graphX = (x - translateX) / scaleFactor;
         float graphY = (y - translateY) / scaleFactor;
 
-        for (int i = 0; i < nodePositions.size(); i++) {
-            NodePosition node = nodePositions.get(i);
-            float distance = (float) Math.sqrt(Math.pow(graphX - node.x, 2) + Math.pow(graphY - node.y, 2));
-            if (distance <= NODE_RADIUS) {
-                return i;
-            }
-        }
-
-        return -1;
+        return nodeGrid.nearest(graphX, graphY, NODE_RADIUS);
     }
 
     private class ScaleListener extends ScaleGestureDetector.SimpleOnScaleGestureListener {
@@ -379,5 +728,11 @@ public class NetworkView extends View {
             invalidate();
             return true;
         }
+
+        @Override
+        public void onScaleEnd(ScaleGestureDetector detector) {
+            // Volta a desenhar pelos blocos do novo nível de zoom
+            invalidate();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Custo por linha do conversor antigo (um Gson e um TypeToken por chamada) contra o codec
+ * de streaming. Fica fora da suíte normal: a compatibilidade com o Gson é conferida no
+ * ConnectionsCodecTest.
+ */
+@Ignore("medição de tempo; rodar manualmente")
+public class ConnectionsCodecBenchmark {
+
+    private static final int BENCHMARK_ROWS = 20_000;
+
+    @Test
+    public void codecIsCheaperPerRowThanGsonPerCall() {
+        List<String> row = Arrays.asList("Java", "Android", "Room", "SQLite", "Grafo de conhecimento");
+        String json = ConnectionsCodec.encode(row);
+        Type listType = new TypeToken<ArrayList<String>>() {}.getType();
+
+        // Aquecimento do JIT para os dois caminhos
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            new Gson().fromJson(json, listType);
+            ConnectionsCodec.decode(json);
+        }
+
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            List<String> decoded = new Gson().fromJson(json, new TypeToken<ArrayList<String>>() {}.getType());
+            sink += decoded.size();
+            sink += new Gson().toJson(decoded).length();
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ROWS; i++) {
+            List<String> decoded = ConnectionsCodec.decode(json);
+            sink += decoded.size();
+            sink += ConnectionsCodec.encode(decoded).length();
+        }
+        long codecNanos = System.nanoTime() - start;
+
+        System.out.printf("Conexões por linha: Gson por chamada %d ns, codec %d ns%n",
+                legacyNanos / BENCHMARK_ROWS, codecNanos / BENCHMARK_ROWS);
+
+        assertTrue(sink > 0);
+        assertTrue("codec deveria ser mais barato que um Gson por linha", codecNanos < legacyNanos);
+    }
+}
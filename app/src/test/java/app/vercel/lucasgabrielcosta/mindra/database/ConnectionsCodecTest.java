@@ -0,0 +1,42 @@
+package app.vercel.lucasgabrielcosta.mindra.database;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConnectionsCodecTest {
+
+    @Test
+    public void decode_readsLegacyGsonOutput() {
+        List<String> connections = Arrays.asList("Ideias", "Rede <neural>", "aspas \"duplas\"", "ação & reação");
+        String legacy = new Gson().toJson(connections);
+
+        assertEquals(connections, ConnectionsCodec.decode(legacy));
+    }
+
+    @Test
+    public void encode_isReadableByGson() {
+        List<String> connections = Arrays.asList("a", null, "b\\c", "linha\nnova");
+        Type listType = new TypeToken<ArrayList<String>>() {}.getType();
+
+        List<String> decoded = new Gson().fromJson(ConnectionsCodec.encode(connections), listType);
+        assertEquals(connections, decoded);
+    }
+
+    @Test
+    public void decode_handlesNullAndEmptyValues() {
+        assertTrue(ConnectionsCodec.decode(null).isEmpty());
+        assertTrue(ConnectionsCodec.decode("null").isEmpty());
+        assertTrue(ConnectionsCodec.decode("[]").isEmpty());
+        assertNull(ConnectionsCodec.encode(null));
+        assertEquals("[]", ConnectionsCodec.encode(new ArrayList<>()));
+    }
+}
@@ -0,0 +1,51 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tempo de uma iteração do layout com repulsão exata (theta = 0) e com Barnes-Hut,
+ * em 1 mil, 10 mil e 50 mil nós. O caso exato de 50 mil leva alguns segundos, então fica
+ * fora da suíte normal: a precisão da aproximação é conferida no BarnesHutTreeTest.
+ */
+@Ignore("medição de tempo; rodar manualmente")
+public class BarnesHutBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 50_000};
+    private static final int WARMUP_ITERATIONS = 2;
+
+    @Test
+    public void compareExactAndBarnesHutIterations() {
+        for (int nodes : SIZES) {
+            int[][] edges = ForceLayoutTest.randomEdges(nodes, nodes * 2, 17);
+
+            long exactNanos = timeOneIteration(nodes, edges, 0f);
+            long approximateNanos = timeOneIteration(nodes, edges, ForceLayout.DEFAULT_THETA);
+
+            System.out.printf("%6d nós: exato %8.1f ms, Barnes-Hut %8.1f ms (%.1fx)%n",
+                    nodes, exactNanos / 1e6, approximateNanos / 1e6, (double) exactNanos / approximateNanos);
+
+            if (nodes >= 10_000) {
+                assertTrue("Barnes-Hut deveria ser mais rápido com " + nodes + " nós",
+                        approximateNanos < exactNanos);
+            }
+        }
+    }
+
+    private static long timeOneIteration(int nodes, int[][] edges, float theta) {
+        ForceLayout layout = new ForceLayout(nodes, edges[0], edges[1], 250f);
+        layout.setTheta(theta);
+
+        // O caso exato grande não precisa de aquecimento para mostrar a diferença
+        int warmup = theta == 0f && nodes > 10_000 ? 0 : WARMUP_ITERATIONS;
+        for (int i = 0; i < warmup; i++) {
+            layout.step();
+        }
+
+        long start = System.nanoTime();
+        layout.step();
+        return System.nanoTime() - start;
+    }
+}
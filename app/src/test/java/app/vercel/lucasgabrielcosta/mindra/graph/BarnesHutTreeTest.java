@@ -0,0 +1,115 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BarnesHutTreeTest {
+
+    private static final float K2 = 250f * 250f;
+    private static final float MIN_DISTANCE_SQ = 0.01f;
+
+    @Test
+    public void thetaZero_matchesExactSum() {
+        float[][] points = randomPoints(300, 3);
+        float[][] exact = exactForces(points);
+        float[][] tree = treeForces(points, 0f);
+
+        for (int i = 0; i < 300; i++) {
+            assertEquals(exact[0][i], tree[0][i], Math.abs(exact[0][i]) * 1e-3f + 1e-2f);
+            assertEquals(exact[1][i], tree[1][i], Math.abs(exact[1][i]) * 1e-3f + 1e-2f);
+        }
+    }
+
+    @Test
+    public void approximation_staysCloseToExactForces() {
+        int n = 2000;
+        float[][] points = randomPoints(n, 5);
+        float[][] exact = exactForces(points);
+        float[][] tree = treeForces(points, 0.5f);
+
+        double errorSum = 0;
+        double magnitudeSum = 0;
+        for (int i = 0; i < n; i++) {
+            errorSum += Math.hypot(exact[0][i] - tree[0][i], exact[1][i] - tree[1][i]);
+            magnitudeSum += Math.hypot(exact[0][i], exact[1][i]);
+        }
+
+        assertTrue("erro relativo médio acima de 5%", errorSum / magnitudeSum < 0.05);
+    }
+
+    @Test
+    public void defaultTheta_staysCloseToExactForces() {
+        // O theta que o ForceLayout usa de fato; o tempo fica no BarnesHutBenchmark
+        int n = 2000;
+        float[][] points = randomPoints(n, 9);
+        float[][] exact = exactForces(points);
+        float[][] tree = treeForces(points, ForceLayout.DEFAULT_THETA);
+
+        double errorSum = 0;
+        double magnitudeSum = 0;
+        for (int i = 0; i < n; i++) {
+            errorSum += Math.hypot(exact[0][i] - tree[0][i], exact[1][i] - tree[1][i]);
+            magnitudeSum += Math.hypot(exact[0][i], exact[1][i]);
+        }
+
+        assertTrue("erro relativo médio " + errorSum / magnitudeSum, errorSum / magnitudeSum < 0.1);
+    }
+
+    @Test
+    public void coincidentPoints_doNotOverflowTheTree() {
+        float[] x = new float[100];
+        float[] y = new float[100];
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.build(x, y, 100);
+
+        float[] dx = new float[100];
+        float[] dy = new float[100];
+        tree.accumulateRepulsion(0, K2, ForceLayout.DEFAULT_THETA, MIN_DISTANCE_SQ, dx, dy);
+        assertFalse(Float.isNaN(dx[0]) || Float.isNaN(dy[0]));
+    }
+
+    static float[][] randomPoints(int n, long seed) {
+        Random random = new Random(seed);
+        float[] x = new float[n];
+        float[] y = new float[n];
+        float extent = 250f * (float) Math.sqrt(n);
+        for (int i = 0; i < n; i++) {
+            x[i] = (random.nextFloat() - 0.5f) * extent;
+            y[i] = (random.nextFloat() - 0.5f) * extent;
+        }
+        return new float[][]{x, y};
+    }
+
+    private static float[][] exactForces(float[][] p) {
+        int n = p[0].length;
+        float[] dx = new float[n];
+        float[] dy = new float[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                float ddx = p[0][i] - p[0][j];
+                float ddy = p[1][i] - p[1][j];
+                float distanceSq = ddx * ddx + ddy * ddy;
+                if (distanceSq < MIN_DISTANCE_SQ) continue;
+                dx[i] += ddx * K2 / distanceSq;
+                dy[i] += ddy * K2 / distanceSq;
+            }
+        }
+        return new float[][]{dx, dy};
+    }
+
+    private static float[][] treeForces(float[][] p, float theta) {
+        int n = p[0].length;
+        float[] dx = new float[n];
+        float[] dy = new float[n];
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.build(p[0], p[1], n);
+        for (int i = 0; i < n; i++) {
+            tree.accumulateRepulsion(i, K2, theta, MIN_DISTANCE_SQ, dx, dy);
+        }
+        return new float[][]{dx, dy};
+    }
+}
@@ -0,0 +1,99 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class EdgeGeometryTest {
+
+    private static final float NODE_RADIUS = 60f;
+    private static final float ARROW_SIZE = 15f;
+
+    @Test
+    public void build_trimsSegmentsToNodeBorders() {
+        float[] x = {0f, 300f};
+        float[] y = {0f, 0f};
+        EdgeGeometry geometry = new EdgeGeometry();
+
+        int edges = geometry.build(x, y, new int[]{0}, new int[]{1}, 1, NODE_RADIUS, ARROW_SIZE,
+                -1000f, -1000f, 1000f, 1000f);
+
+        assertEquals(1, edges);
+        float[] lines = geometry.getLines();
+        assertEquals(60f, lines[0], 1e-4f);
+        assertEquals(0f, lines[1], 1e-4f);
+        assertEquals(240f, lines[2], 1e-4f);
+        assertEquals(0f, lines[3], 1e-4f);
+
+        float[] arrows = geometry.getArrows();
+        assertEquals(240f, arrows[0], 1e-4f);
+        assertTrue(arrows[2] < 240f && arrows[4] < 240f);
+        assertEquals(-arrows[3], arrows[5], 1e-4f);
+        assertEquals(ARROW_SIZE / 2, Math.abs(arrows[3]), 1e-4f);
+    }
+
+    @Test
+    public void build_skipsEdgesOutsideTheViewportAndSelfLoops() {
+        float[] x = {0f, 100f, 5000f, 5100f};
+        float[] y = {0f, 0f, 5000f, 5000f};
+        EdgeGeometry geometry = new EdgeGeometry();
+
+        int edges = geometry.build(x, y, new int[]{0, 2, 1}, new int[]{1, 3, 1}, 3, NODE_RADIUS, ARROW_SIZE,
+                -500f, -500f, 500f, 500f);
+
+        assertEquals(1, edges);
+        assertEquals(1, geometry.getEdgeCount());
+    }
+
+    // Simula o caminho de um quadro do NetworkView: consulta da grade + geometria das arestas
+    @Test
+    public void renderPath_doesNotAllocatePerFrame() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        int nodes = 2000;
+        float[][] p = BarnesHutTreeTest.randomPoints(nodes, 13);
+        int[][] e = ForceLayoutTest.randomEdges(nodes, 4000, 5);
+
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(p[0], p[1], nodes, 2 * NODE_RADIUS);
+        EdgeGeometry geometry = new EdgeGeometry();
+        geometry.ensureCapacity(e[0].length);
+        int[] visible = new int[nodes];
+
+        // Aquecimento para o JIT não contar como alocação do quadro
+        for (int frame = 0; frame < 200; frame++) {
+            renderFrame(grid, geometry, p, e, visible, frame);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int checksum = 0;
+        for (int frame = 0; frame < 500; frame++) {
+            checksum += renderFrame(grid, geometry, p, e, visible, frame);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("bytes alocados em 500 quadros", 0, allocated);
+    }
+
+    private static int renderFrame(SpatialGrid grid, EdgeGeometry geometry, float[][] p, int[][] e,
+                                   int[] visible, int frame) {
+        float offset = (frame % 50) * 20f;
+        float left = -1500f + offset, top = -1500f + offset;
+        float right = 1500f + offset, bottom = 1500f + offset;
+
+        int found = grid.queryRect(left, top, right, bottom, 2 * NODE_RADIUS, visible);
+        int edges = geometry.build(p[0], p[1], e[0], e[1], e[0].length, NODE_RADIUS, ARROW_SIZE,
+                left, top, right, bottom);
+        return found + edges;
+    }
+}
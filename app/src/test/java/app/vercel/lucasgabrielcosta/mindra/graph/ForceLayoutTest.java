@@ -0,0 +1,179 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ForceLayoutTest {
+
+    private static final float SPACING = 250f;
+
+    @Test
+    public void layout_isDeterministic() {
+        int[][] edges = randomEdges(200, 400, 7);
+
+        float[][] first = runToConvergence(200, edges);
+        float[][] second = runToConvergence(200, edges);
+
+        assertArrayEquals(first[0], second[0], 0f);
+        assertArrayEquals(first[1], second[1], 0f);
+    }
+
+    @Test
+    public void layout_pullsLinkedNodesCloserThanUnlinkedOnes() {
+        // Dois grupos de 10 nós totalmente conectados internamente e sem arestas entre eles
+        int groupSize = 10;
+        int edgeCount = 2 * groupSize * (groupSize - 1) / 2;
+        int[] source = new int[edgeCount];
+        int[] target = new int[edgeCount];
+        int e = 0;
+        for (int group = 0; group < 2; group++) {
+            int offset = group * groupSize;
+            for (int i = 0; i < groupSize; i++) {
+                for (int j = i + 1; j < groupSize; j++) {
+                    source[e] = offset + i;
+                    target[e] = offset + j;
+                    e++;
+                }
+            }
+        }
+
+        float[][] positions = runToConvergence(2 * groupSize, new int[][]{source, target});
+        double inside = averageDistance(positions, 0, groupSize, 0, groupSize);
+        double across = averageDistance(positions, 0, groupSize, groupSize, 2 * groupSize);
+
+        assertTrue("grupos conectados deveriam ficar juntos", inside < across);
+    }
+
+    @Test
+    public void layout_convergesBeforeIterationCapForTwoThousandNodes() {
+        int nodes = 2000;
+        int[][] edges = randomEdges(nodes, 3000, 11);
+
+        ForceLayout layout = new ForceLayout(nodes, edges[0], edges[1], SPACING);
+        while (layout.step()) {
+            // até convergir
+        }
+        float[] x = new float[nodes];
+        float[] y = new float[nodes];
+        layout.copyPositions(x, y);
+
+        // Parou porque esfriou, e não porque bateu no limite de iterações
+        assertTrue("iterações: " + layout.getIteration(),
+                layout.getIteration() < ForceLayout.DEFAULT_MAX_ITERATIONS);
+
+        // E o resultado é um layout de fato: arestas bem mais curtas que a distância entre nós quaisquer
+        double edgeLength = 0;
+        int edgeCount = 0;
+        for (int e = 0; e < edges[0].length; e++) {
+            int s = edges[0][e];
+            int t = edges[1][e];
+            if (s == t) continue;
+            edgeLength += Math.hypot(x[s] - x[t], y[s] - y[t]);
+            edgeCount++;
+        }
+        edgeLength /= edgeCount;
+
+        Random random = new Random(5);
+        double pairDistance = 0;
+        int samples = 5000;
+        for (int i = 0; i < samples; i++) {
+            int a = random.nextInt(nodes);
+            int b = random.nextInt(nodes);
+            pairDistance += Math.hypot(x[a] - x[b], y[a] - y[b]);
+        }
+        pairDistance /= samples;
+
+        assertTrue("aresta média " + edgeLength + ", par qualquer " + pairDistance,
+                edgeLength < 0.3 * pairDistance);
+    }
+
+    @Test
+    public void resumeFrom_movesOnlyNewAndChangedNodes() {
+        int nodes = 300;
+        int[][] edges = randomEdges(nodes, 500, 3);
+        float[][] before = runToConvergence(nodes, edges);
+
+        // Uma nota nova (índice 300) ligada às notas 0 e 1
+        int[] source = Arrays.copyOf(edges[0], edges[0].length + 2);
+        int[] target = Arrays.copyOf(edges[1], edges[1].length + 2);
+        source[source.length - 2] = nodes;
+        target[target.length - 2] = 0;
+        source[source.length - 1] = nodes;
+        target[target.length - 1] = 1;
+
+        float[] px = Arrays.copyOf(before[0], nodes + 1);
+        float[] py = Arrays.copyOf(before[1], nodes + 1);
+        boolean[] hasPosition = new boolean[nodes + 1];
+        Arrays.fill(hasPosition, 0, nodes, true);
+        boolean[] movable = new boolean[nodes + 1];
+
+        ForceLayout layout = new ForceLayout(nodes + 1, source, target, SPACING);
+        layout.resumeFrom(px, py, hasPosition, movable);
+        while (layout.step()) {
+            // até convergir
+        }
+        float[] x = new float[nodes + 1];
+        float[] y = new float[nodes + 1];
+        layout.copyPositions(x, y);
+
+        assertArrayEquals(before[0], Arrays.copyOf(x, nodes), 0f);
+        assertArrayEquals(before[1], Arrays.copyOf(y, nodes), 0f);
+        assertTrue("poucas iterações para acomodar um nó", layout.getIteration() < 100);
+
+        double toNeighbor = Math.hypot(x[nodes] - x[0], y[nodes] - y[0]);
+        assertTrue("nó novo deveria ficar perto do vizinho: " + toNeighbor, toNeighbor < 4 * SPACING);
+    }
+
+    @Test
+    public void resumeFrom_withNothingToMoveIsAlreadyConverged() {
+        int[][] edges = randomEdges(50, 80, 1);
+        float[][] before = runToConvergence(50, edges);
+        boolean[] all = new boolean[50];
+        Arrays.fill(all, true);
+
+        ForceLayout layout = new ForceLayout(50, edges[0], edges[1], SPACING);
+        layout.resumeFrom(before[0], before[1], all, new boolean[50]);
+
+        assertTrue(layout.isConverged());
+        assertFalse(layout.step());
+    }
+
+    private static float[][] runToConvergence(int nodes, int[][] edges) {
+        ForceLayout layout = new ForceLayout(nodes, edges[0], edges[1], SPACING);
+        while (layout.step()) {
+            // até convergir
+        }
+        float[] x = new float[nodes];
+        float[] y = new float[nodes];
+        layout.copyPositions(x, y);
+        return new float[][]{x, y};
+    }
+
+    static int[][] randomEdges(int nodes, int edges, long seed) {
+        Random random = new Random(seed);
+        int[] source = new int[edges];
+        int[] target = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            source[e] = random.nextInt(nodes);
+            target[e] = random.nextInt(nodes);
+        }
+        return new int[][]{source, target};
+    }
+
+    private static double averageDistance(float[][] p, int fromA, int toA, int fromB, int toB) {
+        double total = 0;
+        int pairs = 0;
+        for (int i = fromA; i < toA; i++) {
+            for (int j = fromB; j < toB; j++) {
+                if (i == j) continue;
+                total += Math.hypot(p[0][i] - p[0][j], p[1][i] - p[1][j]);
+                pairs++;
+            }
+        }
+        return total / pairs;
+    }
+}
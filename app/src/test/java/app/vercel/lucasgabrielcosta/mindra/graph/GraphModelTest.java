@@ -0,0 +1,68 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphModelTest {
+
+    @Test
+    public void build_resolvesTargetIdsToNodeIndices() {
+        GraphModel model = GraphModel.build(
+                new int[]{10, 20, 30},
+                Arrays.asList(Arrays.asList(20, 30), Collections.singletonList(30), null));
+
+        assertEquals(3, model.getNodeCount());
+        assertEquals(3, model.getEdgeCount());
+        assertEdge(model, 0, 0, 1);
+        assertEdge(model, 1, 0, 2);
+        assertEdge(model, 2, 1, 2);
+        assertEquals(2, model.indexOf(30));
+        assertEquals(-1, model.indexOf(40));
+    }
+
+    @Test
+    public void build_dropsDuplicatesSelfLinksAndUnresolvedTargets() {
+        List<List<Integer>> targets = Arrays.asList(
+                Arrays.asList(2, 2, 1, null, 99),
+                Collections.singletonList(1));
+
+        GraphModel model = GraphModel.build(new int[]{1, 2}, targets);
+
+        assertEquals(2, model.getEdgeCount());
+        assertEdge(model, 0, 0, 1);
+        assertEdge(model, 1, 1, 0);
+    }
+
+    @Test
+    public void build_followsTargetChosenByDatabase() {
+        // Duas notas "A": a aresta vai para a que o banco resolveu, não para a primeira da lista
+        GraphModel model = GraphModel.build(
+                new int[]{8, 3, 5},
+                Arrays.asList(null, null, Collections.singletonList(3)));
+
+        assertEquals(1, model.getEdgeCount());
+        assertEdge(model, 0, 2, 1);
+    }
+
+    @Test
+    public void build_sharedTargetsNoLongerFanOut() {
+        // Antes, notas que citavam o mesmo título eram ligadas entre si; agora só ao título citado
+        List<Integer> hub = Collections.singletonList(1);
+        GraphModel model = GraphModel.build(new int[]{1, 2, 3, 4, 5}, Arrays.asList(null, hub, hub, hub, hub));
+
+        assertEquals(4, model.getEdgeCount());
+        for (int e = 0; e < 4; e++) {
+            assertEquals(0, model.getEdgeTarget()[e]);
+        }
+    }
+
+    private static void assertEdge(GraphModel model, int edge, int source, int target) {
+        assertEquals(source, model.getEdgeSource()[edge]);
+        assertEquals(target, model.getEdgeTarget()[edge]);
+    }
+}
@@ -0,0 +1,76 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LayoutRunnerTest {
+
+    @Test(timeout = 10_000)
+    public void start_dropsUnconsumedFrameOfPreviousLayout() throws InterruptedException {
+        LayoutRunner runner = new LayoutRunner();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CountDownLatch finished = new CountDownLatch(1);
+            runner.start(new ForceLayout(5, new int[0], new int[0], 250f), done -> {
+                if (done) finished.countDown();
+            });
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+            // O quadro final do primeiro layout não foi copiado; o novo layout fica parado
+            // antes do primeiro quadro, então nada que ele publique conta na asserção
+            CountDownLatch entered = new CountDownLatch(1);
+            runner.start(new GatedLayout(7, entered, release), null);
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertEquals(-1, runner.copyLatest(new float[7], new float[7]));
+        } finally {
+            release.countDown();
+            runner.shutdown();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void cancel_dropsUnconsumedFrame() throws InterruptedException {
+        LayoutRunner runner = new LayoutRunner();
+        try {
+            CountDownLatch finished = new CountDownLatch(1);
+            runner.start(new ForceLayout(5, new int[0], new int[0], 250f), done -> {
+                if (done) finished.countDown();
+            });
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+            runner.cancel();
+
+            assertEquals(-1, runner.copyLatest(new float[5], new float[5]));
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    // Segura a primeira cópia de posições, feita antes da primeira publicação
+    private static class GatedLayout extends ForceLayout {
+        private final CountDownLatch entered;
+        private final CountDownLatch release;
+
+        GatedLayout(int nodeCount, CountDownLatch entered, CountDownLatch release) {
+            super(nodeCount, new int[0], new int[0], 250f);
+            this.entered = entered;
+            this.release = release;
+        }
+
+        @Override
+        public void copyPositions(float[] outX, float[] outY) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.copyPositions(outX, outY);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NodeClustersTest {
+
+    @Test
+    public void build_groupsNodesPerCellAtTheirCentroid() {
+        float[] x = {10f, 30f, 150f, 170f, 190f};
+        float[] y = {10f, 30f, 150f, 150f, 150f};
+        int[] nodes = {0, 1, 2, 3, 4};
+        NodeClusters clusters = new NodeClusters();
+
+        int count = clusters.build(x, y, nodes, 5, 0f, 0f, 200f, 200f, 100f);
+
+        assertEquals(2, count);
+        assertEquals(2, clusters.getClusterSize()[0]);
+        assertEquals(20f, clusters.getClusterX()[0], 1e-4f);
+        assertEquals(20f, clusters.getClusterY()[0], 1e-4f);
+        assertEquals(3, clusters.getClusterSize()[1]);
+        assertEquals(170f, clusters.getClusterX()[1], 1e-4f);
+        assertEquals(150f, clusters.getClusterY()[1], 1e-4f);
+    }
+
+    @Test
+    public void build_clampsMarginNodesIntoBorderCellsAndResetsBetweenFrames() {
+        float[] x = {-50f, 10f, 250f};
+        float[] y = {10f, 10f, 10f};
+        int[] nodes = {0, 1, 2};
+        NodeClusters clusters = new NodeClusters();
+
+        assertEquals(2, clusters.build(x, y, nodes, 3, 0f, 0f, 200f, 200f, 100f));
+        assertEquals(2, clusters.getClusterSize()[0]);
+        assertEquals(1, clusters.getClusterSize()[1]);
+
+        // O quadro seguinte não herda contagens do anterior
+        assertEquals(1, clusters.build(x, y, new int[]{1}, 1, 0f, 0f, 200f, 200f, 100f));
+        assertEquals(1, clusters.getClusterSize()[0]);
+        assertEquals(10f, clusters.getClusterX()[0], 1e-4f);
+    }
+
+    // Quadro com zoom mínimo: todos os nós visíveis entram em exatamente um grupo
+    @Test
+    public void farFrame_groupsEveryVisibleNodeAt10kNodes() {
+        int nodes = 10_000;
+        float[][] p = BarnesHutTreeTest.randomPoints(nodes, 3);
+
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(p[0], p[1], nodes, 120f);
+        NodeClusters clusters = new NodeClusters();
+        int[] visible = new int[nodes];
+
+        float left = -1e5f, top = -1e5f, right = 1e5f, bottom = 1e5f;
+        float cell = 48f / 0.1f;
+
+        int found = grid.queryRect(left, top, right, bottom, 120f, visible);
+        int count = clusters.build(p[0], p[1], visible, found, left, top, right, bottom, cell);
+
+        assertEquals(nodes, found);
+        assertTrue("grupos: " + count, count > 0 && count < nodes);
+        int total = 0;
+        for (int c = 0; c < count; c++) {
+            total += clusters.getClusterSize()[c];
+        }
+        assertEquals(nodes, total);
+    }
+}
@@ -0,0 +1,81 @@
+package app.vercel.lucasgabrielcosta.mindra.graph;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpatialGridTest {
+
+    private static final float NODE_RADIUS = 60f;
+
+    @Test
+    public void nearest_matchesLinearScan() {
+        float[][] p = BarnesHutTreeTest.randomPoints(5000, 21);
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(p[0], p[1], 5000, 2 * NODE_RADIUS);
+
+        Random random = new Random(4);
+        for (int query = 0; query < 2000; query++) {
+            int anchor = random.nextInt(5000);
+            float qx = p[0][anchor] + (random.nextFloat() - 0.5f) * 3 * NODE_RADIUS;
+            float qy = p[1][anchor] + (random.nextFloat() - 0.5f) * 3 * NODE_RADIUS;
+
+            int expected = -1;
+            float bestSq = NODE_RADIUS * NODE_RADIUS;
+            for (int i = 0; i < 5000; i++) {
+                float dx = p[0][i] - qx;
+                float dy = p[1][i] - qy;
+                if (dx * dx + dy * dy <= bestSq) {
+                    bestSq = dx * dx + dy * dy;
+                    expected = i;
+                }
+            }
+
+            int actual = grid.nearest(qx, qy, NODE_RADIUS);
+            if (expected < 0) {
+                assertEquals(-1, actual);
+            } else {
+                float dx = p[0][actual] - qx;
+                float dy = p[1][actual] - qy;
+                assertEquals(bestSq, dx * dx + dy * dy, 1e-3f);
+            }
+        }
+    }
+
+    @Test
+    public void queryRect_returnsExactlyTheNodesInsideTheViewport() {
+        float[][] p = BarnesHutTreeTest.randomPoints(3000, 8);
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(p[0], p[1], 3000, 2 * NODE_RADIUS);
+
+        float left = -2000f, top = -1500f, right = 1000f, bottom = 2500f;
+        int[] out = new int[3000];
+        int found = grid.queryRect(left, top, right, bottom, NODE_RADIUS, out);
+
+        int[] actual = Arrays.copyOf(out, found);
+        Arrays.sort(actual);
+
+        int expectedCount = 0;
+        int[] expected = new int[3000];
+        for (int i = 0; i < 3000; i++) {
+            if (p[0][i] >= left - NODE_RADIUS && p[0][i] <= right + NODE_RADIUS
+                    && p[1][i] >= top - NODE_RADIUS && p[1][i] <= bottom + NODE_RADIUS) {
+                expected[expectedCount++] = i;
+            }
+        }
+
+        assertArrayEquals(Arrays.copyOf(expected, expectedCount), actual);
+    }
+
+    @Test
+    public void emptyGrid_findsNothing() {
+        SpatialGrid grid = new SpatialGrid();
+        grid.build(new float[0], new float[0], 0, 2 * NODE_RADIUS);
+
+        assertEquals(-1, grid.nearest(0f, 0f, NODE_RADIUS));
+        assertEquals(0, grid.queryRect(-10f, -10f, 10f, 10f, 0f, new int[0]));
+    }
+}
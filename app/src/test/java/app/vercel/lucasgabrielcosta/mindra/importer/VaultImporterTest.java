@@ -0,0 +1,210 @@
+package app.vercel.lucasgabrielcosta.mindra.importer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import app.vercel.lucasgabrielcosta.mindra.model.Note;
+
+import static org.junit.Assert.*;
+
+public class VaultImporterTest {
+
+    private static final String ROOT_CATEGORY = "Importadas";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void createNote_reducesObsidianLinksToTitles() {
+        Note note = VaultImporter.createNote("Ideia.md", "Geral", 0,
+                "[[pasta/Nota.md#Seção|apelido]] e [[Nota]], [[Outra|x]] [[#só seção]]");
+
+        assertEquals("Ideia", note.getTitle());
+        assertEquals(Arrays.asList("Nota", "Outra"), note.getConnections());
+    }
+
+    @Test
+    public void editingImportedNote_keepsResolvedLinkTitles() {
+        Note note = VaultImporter.createNote("Ideia.md", "Geral", 0, "[[pasta/Nota#Seção|apelido]]");
+        List<String> imported = note.getConnections();
+
+        // A primeira edição no app regrava note_links a partir de setContent
+        note.setContent(note.getContent() + "\nmais uma linha com [[Outra|x]]");
+
+        assertEquals(imported, note.getConnections().subList(0, 1));
+        assertEquals(Arrays.asList("Nota", "Outra"), note.getConnections());
+    }
+
+    @Test
+    public void importZip_usesFoldersAsCategoriesAndSkipsHiddenFiles() throws IOException {
+        byte[] zip = zip(
+                "Raiz.md", "\uFEFFcita [[Projetos/Mindra]]",
+                "Projetos/Mindra.md", "cita [[Raiz]]",
+                ".obsidian/workspace.md", "configuração",
+                "__MACOSX/Projetos/._Mindra.md", "lixo",
+                "Projetos/imagem.png", "binário");
+        RecordingSink sink = new RecordingSink();
+
+        VaultImporter.Result result = new VaultImporter(sink, ROOT_CATEGORY).importZip(new ByteArrayInputStream(zip));
+
+        assertEquals(2, result.getImportedCount());
+        Map<String, Note> notes = sink.byTitle();
+        assertEquals(ROOT_CATEGORY, notes.get("Raiz").getCategory());
+        assertEquals("cita [[Projetos/Mindra]]", notes.get("Raiz").getContent());
+        assertEquals(Arrays.asList("Mindra"), notes.get("Raiz").getConnections());
+        assertEquals("Projetos", notes.get("Mindra").getCategory());
+        assertEquals(1, sink.finishCount);
+    }
+
+    @Test
+    public void importDirectory_walksNestedFolders() throws IOException {
+        File root = folder.newFolder("cofre");
+        write(new File(root, "Inicio.md"), "[[Detalhe]]");
+        write(new File(root, "a/b/Detalhe.markdown"), "fim");
+        write(new File(root, ".trash/Apagada.md"), "não importar");
+        write(new File(root, "a/notas.txt"), "não é markdown");
+
+        RecordingSink sink = new RecordingSink();
+        VaultImporter.Result result = new VaultImporter(sink, ROOT_CATEGORY).importDirectory(root);
+
+        assertEquals(2, result.getImportedCount());
+        assertEquals("b", sink.byTitle().get("Detalhe").getCategory());
+        assertEquals(ROOT_CATEGORY, sink.byTitle().get("Inicio").getCategory());
+    }
+
+    @Test(timeout = 60_000)
+    public void importZip_streamsLargeVaultInBatches() throws IOException {
+        int count = 50_000;
+        String[] entries = new String[count * 2];
+        for (int i = 0; i < count; i++) {
+            entries[2 * i] = "pasta " + i % 50 + "/nota " + i + ".md";
+            entries[2 * i + 1] = "# Nota " + i + "\n\nTexto da nota com [[nota " + (i + 1) % count + "]] e " +
+                    "[[nota " + (i * 7) % count + "|outra]].\n";
+        }
+        byte[] zip = zip(entries);
+        RecordingSink sink = new RecordingSink();
+        List<Integer> progress = new ArrayList<>();
+        VaultImporter importer = new VaultImporter(sink, ROOT_CATEGORY);
+        importer.setProgressListener(progress::add);
+
+        VaultImporter.Result result = importer.importZip(new ByteArrayInputStream(zip));
+
+        assertEquals(count, result.getImportedCount());
+        assertEquals(count, sink.notes.size());
+        assertEquals(count, sink.byTitle().size());
+        assertTrue(sink.largestBatch <= VaultImporter.BATCH_SIZE);
+        assertEquals(Integer.valueOf(count), progress.get(progress.size() - 1));
+        assertEquals(2, sink.byTitle().get("nota 1").getConnections().size());
+    }
+
+    @Test(timeout = 10_000)
+    public void importZip_stopsWhenSinkFails() throws IOException {
+        String[] entries = new String[VaultImporter.BATCH_SIZE * 6];
+        for (int i = 0; i < entries.length / 2; i++) {
+            entries[2 * i] = "n" + i + ".md";
+            entries[2 * i + 1] = "texto";
+        }
+        byte[] zip = zip(entries);
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void insertBatch(List<Note> batch) {
+                super.insertBatch(batch);
+                if (notes.size() > VaultImporter.BATCH_SIZE) {
+                    throw new IllegalStateException("disco cheio");
+                }
+            }
+        };
+        VaultImporter importer = new VaultImporter(sink, ROOT_CATEGORY);
+
+        try {
+            importer.importZip(new ByteArrayInputStream(zip));
+            fail("a falha do destino deveria interromper a importação");
+        } catch (IllegalStateException e) {
+            assertEquals("disco cheio", e.getMessage());
+        }
+        // O lote já gravado ainda tem as conexões resolvidas
+        assertEquals(1, sink.finishCount);
+    }
+
+    @Test(timeout = 10_000)
+    public void importZip_finishesWhenReadingFails() {
+        RecordingSink sink = new RecordingSink();
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("cartão removido");
+            }
+        };
+
+        try {
+            new VaultImporter(sink, ROOT_CATEGORY).importZip(broken);
+            fail("a falha de leitura deveria interromper a importação");
+        } catch (IOException e) {
+            assertEquals("cartão removido", e.getMessage());
+        }
+        assertEquals(1, sink.finishCount);
+    }
+
+    private static class RecordingSink implements VaultImporter.NoteSink {
+        final List<Note> notes = new ArrayList<>();
+        int largestBatch;
+        int finishCount;
+
+        @Override
+        public void insertBatch(List<Note> batch) {
+            assertEquals(0, finishCount);
+            largestBatch = Math.max(largestBatch, batch.size());
+            notes.addAll(batch);
+        }
+
+        @Override
+        public void finish() {
+            finishCount++;
+        }
+
+        Map<String, Note> byTitle() {
+            Map<String, Note> map = new HashMap<>();
+            for (Note note : notes) {
+                map.put(note.getTitle(), note);
+            }
+            return map;
+        }
+    }
+
+    // Pares caminho, conteúdo
+    private static byte[] zip(String... entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void write(File file, String text) throws IOException {
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
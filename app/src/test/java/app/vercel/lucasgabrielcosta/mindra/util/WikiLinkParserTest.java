@@ -0,0 +1,83 @@
+package app.vercel.lucasgabrielcosta.mindra.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class WikiLinkParserTest {
+
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("\\[\\[(.*?)\\]\\]");
+
+    @Test
+    public void extractTargets_keepsFirstOccurrenceOrderWithoutDuplicates() {
+        List<String> targets = WikiLinkParser.extractTargets("[[B]] texto [[A]] e [[B]] de novo [[]]");
+        assertEquals(Arrays.asList("B", "A"), targets);
+    }
+
+    @Test
+    public void extractTargets_reducesObsidianLinksToTitles() {
+        List<String> targets = WikiLinkParser.extractTargets(
+                "[[pasta/Nota.md#Seção|apelido]] e [[Nota]], [[Outra|x]] [[#só seção]] [[ Espaço ]]");
+        assertEquals(Arrays.asList("Nota", "Outra", "Espaço"), targets);
+    }
+
+    @Test
+    public void scan_doesNotCrossLineBreaks() {
+        assertTrue(WikiLinkParser.extractTargets("[[quebra\nde linha]]").isEmpty());
+        assertEquals(Arrays.asList("ok"), WikiLinkParser.extractTargets("[[nao\n[[ok]]"));
+    }
+
+    @Test
+    public void scan_matchesLegacyRegexOnRandomText() {
+        Random random = new Random(42);
+        char[] alphabet = {'[', ']', 'a', 'b', ' ', '\n'};
+
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+
+            assertEquals(text.toString(), legacySpans(text), scannerSpans(text));
+        }
+    }
+
+    @Test
+    public void reparse_coversOnlyTheEditedLine() {
+        String text = "primeira [[A]]\nsegunda [[B]] editada\nterceira [[C]]";
+        int editAt = text.indexOf("editada");
+
+        List<String> found = new ArrayList<>();
+        int[] region = WikiLinkParser.reparse(text, editAt, 0, "editada".length(),
+                (source, start, end, targetStart, targetEnd) ->
+                        found.add(source.subSequence(targetStart, targetEnd).toString()));
+
+        assertEquals(Arrays.asList("B"), found);
+        assertEquals(text.indexOf("segunda"), region[0]);
+        assertEquals(text.indexOf("\nterceira"), region[1]);
+    }
+
+    private static List<String> legacySpans(CharSequence text) {
+        List<String> spans = new ArrayList<>();
+        Matcher matcher = LEGACY_PATTERN.matcher(text);
+        while (matcher.find()) {
+            spans.add(matcher.start() + ":" + matcher.end() + ":" + matcher.group(1));
+        }
+        return spans;
+    }
+
+    private static List<String> scannerSpans(CharSequence text) {
+        List<String> spans = new ArrayList<>();
+        WikiLinkParser.scan(text, (source, start, end, targetStart, targetEnd) ->
+                spans.add(start + ":" + end + ":" + source.subSequence(targetStart, targetEnd)));
+        return spans;
+    }
+}